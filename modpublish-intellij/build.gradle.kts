@@ -5,6 +5,7 @@ plugins {
     kotlin("jvm") version "2.4.0"
 
     id("org.jetbrains.intellij.platform") version "2.17.0"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "one.pkg"
@@ -94,6 +95,21 @@ intellijPlatform {
     }
 }
 
+configurations.named("jmhImplementation") {
+    // The IDE supplies the platform, Gson and coroutines to the plugin; benchmarks run outside it.
+    extendsFrom(configurations.compileOnly.get())
+}
+
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    includes = providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(listOf())
+}
+
 tasks.register("generateChangeNotes")
 
 tasks.named("generateChangeNotes") {
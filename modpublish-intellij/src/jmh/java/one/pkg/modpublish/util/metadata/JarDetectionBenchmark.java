@@ -0,0 +1,84 @@
+package one.pkg.modpublish.util.metadata;
+
+import one.pkg.modpublish.data.internal.JarMetadata;
+import one.pkg.modpublish.data.internal.PublishType;
+import one.pkg.modpublish.util.io.FileAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Loader detection latency against archive shape. The jar carries Fabric metadata in the middle
+ * of its entry list; {@code sizeMb} is a minimum, since large entry counts are already bigger
+ * than the smallest sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JarDetectionBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int entries;
+
+    @Param({"1", "100", "500"})
+    public int sizeMb;
+
+    private File jar;
+
+    @Setup
+    public void setup() throws IOException {
+        jar = SyntheticJar.get(PublishType.Fabric, entries, sizeMb * 1024L * 1024L);
+    }
+
+    /**
+     * Central-directory probe used by {@link JarScanner}: opens the archive and checks every loader file.
+     */
+    @Benchmark
+    public int probe() throws IOException {
+        int found = 0;
+        try (ArchiveEntries archive = JarScanner.INSTANCE.open(jar)) {
+            if (archive == null) return -1;
+            for (PublishType type : PublishType.getEntries()) {
+                if (archive.contains(type.getFileName())) found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The same detection through {@link JarFile}, which reads the whole entry table up front.
+     * This is how jars were scanned before {@link ZipProbe}, kept here as the baseline.
+     */
+    @Benchmark
+    public PublishType jarFile() throws IOException {
+        try (JarFile file = new JarFile(jar)) {
+            for (PublishType type : PublishType.getEntries()) {
+                if (type == PublishType.JavaAgent) {
+                    Manifest manifest = file.getManifest();
+                    if (manifest != null && FileAPI.INSTANCE.hasAgentAttributes(manifest)) return type;
+                } else if (file.getEntry(type.getFileName()) != null) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Detection plus metadata parsing, as done for every selected file in the publish action.
+     */
+    @Benchmark
+    public JarMetadata scan() {
+        return JarScanner.INSTANCE.scan(jar);
+    }
+}
@@ -0,0 +1,68 @@
+package one.pkg.modpublish.util.metadata;
+
+import one.pkg.modpublish.data.internal.JarMetadata;
+import one.pkg.modpublish.data.internal.LocalModInfo;
+import one.pkg.modpublish.data.internal.PublishType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata parsing per loader: fabric.mod.json and quilt.mod.json through ModJsonParser, mods.toml
+ * through ModTomlParser, riftmod.json and litemod.json, and the manifest check for Java agents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JarMetadataBenchmark {
+    @Param({"Fabric", "Quilt", "Forge", "NeoForge", "Rift", "LiteLoader", "JavaAgent"})
+    public String loader;
+
+    @Param({"1000"})
+    public int entries;
+
+    private PublishType type;
+    private File jar;
+    private ArchiveEntries archive;
+
+    @Setup
+    public void setup() throws IOException {
+        type = PublishType.valueOf(loader);
+        jar = SyntheticJar.get(type, entries, 0);
+        archive = JarScanner.INSTANCE.open(jar);
+        if (archive == null || type.readMod(archive) == null) {
+            throw new IllegalStateException("Synthetic " + loader + " jar could not be read");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        archive.close();
+    }
+
+    /**
+     * Parsing only, on an archive that is already open.
+     */
+    @Benchmark
+    public LocalModInfo readMod() {
+        return type.readMod(archive);
+    }
+
+    /**
+     * Open, detect and parse.
+     */
+    @Benchmark
+    public JarMetadata scan() {
+        return JarScanner.INSTANCE.scan(jar);
+    }
+}
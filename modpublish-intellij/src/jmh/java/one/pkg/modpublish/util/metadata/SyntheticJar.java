@@ -0,0 +1,131 @@
+package one.pkg.modpublish.util.metadata;
+
+import one.pkg.modpublish.data.internal.PublishType;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Generates jars shaped like real mod builds for the scanning benchmarks: a manifest, a number of
+ * small class entries, the loader's metadata file and, if needed, a stored padding entry that
+ * brings the archive up to a minimum size.
+ * <p>
+ * Jars are written once to {@code java.io.tmpdir/modpublish-jmh} and reused by later runs.
+ */
+public final class SyntheticJar {
+    private static final int CHUNK = 1 << 20;
+
+    private SyntheticJar() {
+    }
+
+    public static File get(PublishType type, int entries, long minBytes) throws IOException {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "modpublish-jmh");
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+        File file = new File(dir, type.getID() + "-" + entries + "-" + minBytes + ".jar");
+        if (file.isFile()) return file;
+
+        File partial = new File(dir, file.getName() + ".tmp");
+        write(partial, type, entries, minBytes);
+        Files.move(partial.toPath(), file.toPath());
+        return file;
+    }
+
+    private static void write(File file, PublishType type, int entries, long minBytes) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (type == PublishType.JavaAgent) {
+            manifest.getMainAttributes().putValue("Premain-Class", "com.example.synthetic.Agent");
+        }
+
+        try (JarOutputStream jar = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(file), CHUNK), manifest)) {
+            byte[] body = new byte[64];
+            for (int i = 0; i < entries; i++) {
+                if (i == entries / 2 && !type.getFileName().isEmpty()) {
+                    jar.putNextEntry(new JarEntry(type.getFileName()));
+                    jar.write(metadata(type).getBytes(StandardCharsets.UTF_8));
+                    jar.closeEntry();
+                }
+                body[0] = (byte) i;
+                jar.putNextEntry(new JarEntry("com/example/synthetic/p" + (i / 1000) + "/C" + i + ".class"));
+                jar.write(body);
+                jar.closeEntry();
+            }
+
+            jar.flush();
+            long padding = minBytes - file.length();
+            if (padding > 0) writePadding(jar, padding);
+        }
+    }
+
+    private static void writePadding(JarOutputStream jar, long size) throws IOException {
+        byte[] zeros = new byte[CHUNK];
+        CRC32 crc = new CRC32();
+        for (long left = size; left > 0; left -= CHUNK) {
+            crc.update(zeros, 0, (int) Math.min(CHUNK, left));
+        }
+
+        JarEntry entry = new JarEntry("assets/synthetic/padding.bin");
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        jar.putNextEntry(entry);
+        for (long left = size; left > 0; left -= CHUNK) {
+            jar.write(zeros, 0, (int) Math.min(CHUNK, left));
+        }
+        jar.closeEntry();
+    }
+
+    private static String metadata(PublishType type) {
+        return switch (type) {
+            case Fabric, Quilt -> """
+                    {
+                      "schemaVersion": 1,
+                      "id": "synthetic",
+                      "name": "Synthetic",
+                      "version": "1.0.0",
+                      "environment": "*",
+                      "depends": {
+                        "fabricloader": ">=0.15.0",
+                        "minecraft": ["1.20.1", "1.20.2", "1.20.4", "1.20.6", "1.21.1"]
+                      }
+                    }
+                    """;
+            case Forge, NeoForge -> """
+                    modLoader = "javafml"
+                    loaderVersion = "[47,)"
+                    license = "LGPL-3.0"
+
+                    [[mods]]
+                    modId = "synthetic"
+                    version = "1.0.0"
+                    displayName = "Synthetic"
+
+                    [[dependencies.synthetic]]
+                    modId = "minecraft"
+                    mandatory = true
+                    versionRange = "[1.20.1,1.21)"
+                    ordering = "NONE"
+                    side = "BOTH"
+                    """;
+            case Rift -> """
+                    { "id": "synthetic", "name": "Synthetic", "version": "1.0.0" }
+                    """;
+            case LiteLoader -> """
+                    { "name": "Synthetic", "version": "1.0.0", "mcversion": "1.12.2" }
+                    """;
+            case JavaAgent -> "";
+        };
+    }
+}
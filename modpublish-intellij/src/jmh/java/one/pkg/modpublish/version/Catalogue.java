@@ -0,0 +1,36 @@
+package one.pkg.modpublish.version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the bundled {@code META-INF/minecraft.version.json} for benchmarks. Only the version
+ * strings are needed, so they are pulled out with a pattern instead of a JSON library.
+ */
+public final class Catalogue {
+    private static final Pattern VERSION_FIELD = Pattern.compile("\"v\"\\s*:\\s*\"([^\"]*)\"");
+
+    private Catalogue() {
+    }
+
+    public static List<String> versions() {
+        try (InputStream stream = Catalogue.class.getResourceAsStream("/META-INF/minecraft.version.json")) {
+            if (stream == null) throw new IllegalStateException("minecraft.version.json not found");
+
+            String json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            List<String> versions = new ArrayList<>();
+            Matcher matcher = VERSION_FIELD.matcher(json);
+            while (matcher.find()) {
+                versions.add(matcher.group(1));
+            }
+            return versions;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
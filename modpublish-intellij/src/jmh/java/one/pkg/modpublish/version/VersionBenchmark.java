@@ -0,0 +1,68 @@
+package one.pkg.modpublish.version;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Version parsing and ordering over the whole bundled Minecraft catalogue. Each invocation
+ * covers every catalogue entry, so scores are per catalogue pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VersionBenchmark {
+    private String[] strings;
+    private Version[] versions;
+
+    @Setup
+    public void setup() {
+        List<String> catalogue = Catalogue.versions();
+        strings = catalogue.toArray(String[]::new);
+        versions = catalogue.stream().map(Version::of).toArray(Version[]::new);
+    }
+
+    @Benchmark
+    public void construct(Blackhole blackhole) {
+        for (String string : strings) {
+            blackhole.consume(new Version(string));
+        }
+    }
+
+    @Benchmark
+    public void intern(Blackhole blackhole) {
+        for (String string : strings) {
+            blackhole.consume(Version.of(string));
+        }
+    }
+
+    @Benchmark
+    public int compareAdjacent() {
+        int sum = 0;
+        for (int i = 1; i < versions.length; i++) {
+            sum += versions[i - 1].compareTo(versions[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Version[] sort() {
+        Version[] copy = versions.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public VersionIndex buildIndex() {
+        return VersionIndex.of(Arrays.asList(versions));
+    }
+}
@@ -0,0 +1,131 @@
+package one.pkg.modpublish.version.constraint;
+
+import one.pkg.modpublish.version.Catalogue;
+import one.pkg.modpublish.version.Version;
+import one.pkg.modpublish.version.VersionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Constraint parsing and catalogue matching. The corpus holds ranges as they appear in
+ * mods.toml ({@code versionRange}) and fabric.mod.json ({@code depends.minecraft}), including
+ * the bracketed list that a fabric array is joined into.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConstraintBenchmark {
+    private static final String[] CORPUS = {
+            "[1.20.1,1.21)",
+            "[1.19.2,)",
+            "(,1.12.2]",
+            "[1.20.1]",
+            "1.20.1",
+            ">=1.20.1",
+            ">=1.18.2 <1.20",
+            "~1.20",
+            "^1.20.1",
+            "1.20-1.20.4",
+            "1.21.1 || 1.21.2",
+            ">=1.16.5 <=1.17.1 || >=1.18.2 <1.19",
+    };
+
+    /**
+     * Size of the synthetic fabric array range added to the corpus.
+     */
+    @Param({"8", "64"})
+    public int fabricListSize;
+
+    private String[] corpus;
+    private Version[] catalogue;
+    private VersionIndex index;
+    private VersionConstraint[] parsed;
+    private VersionRangeSet[] compiled;
+
+    @Setup
+    public void setup() {
+        List<String> versions = Catalogue.versions();
+        catalogue = versions.stream().map(Version::of).toArray(Version[]::new);
+        index = VersionIndex.of(List.of(catalogue));
+
+        StringBuilder fabric = new StringBuilder("[");
+        int added = 0;
+        for (String version : versions) {
+            if (added == fabricListSize) break;
+            if (Version.of(version).getType() != Version.VersionType.RELEASE) continue;
+            if (added++ > 0) fabric.append(',');
+            fabric.append(version);
+        }
+        fabric.append(']');
+
+        corpus = new String[CORPUS.length + 1];
+        System.arraycopy(CORPUS, 0, corpus, 0, CORPUS.length);
+        corpus[CORPUS.length] = fabric.toString();
+
+        parsed = new VersionConstraint[corpus.length];
+        compiled = new VersionRangeSet[corpus.length];
+        for (int i = 0; i < corpus.length; i++) {
+            parsed[i] = VersionConstraintParser.parse(corpus[i]);
+            compiled[i] = VersionRangeSet.compile(parsed[i]);
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String constraint : corpus) {
+            blackhole.consume(VersionConstraintParser.parseUncached(constraint));
+        }
+    }
+
+    @Benchmark
+    public void parseCached(Blackhole blackhole) {
+        for (String constraint : corpus) {
+            blackhole.consume(VersionConstraintParser.parse(constraint));
+        }
+    }
+
+    @Benchmark
+    public void bounds(Blackhole blackhole) {
+        for (VersionConstraint constraint : parsed) {
+            blackhole.consume(constraint.getLowVersion());
+            blackhole.consume(constraint.getMaxVersion());
+        }
+    }
+
+    @Benchmark
+    public int satisfiesSweep() {
+        int matched = 0;
+        for (VersionConstraint constraint : parsed) {
+            for (Version version : catalogue) {
+                if (constraint.satisfies(version)) matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int compiledSweep() {
+        int matched = 0;
+        for (VersionRangeSet set : compiled) {
+            matched += set.match(index).length;
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public void compile(Blackhole blackhole) {
+        for (VersionConstraint constraint : parsed) {
+            blackhole.consume(VersionRangeSet.compile(constraint));
+        }
+    }
+}
@@ -85,6 +85,10 @@ public final class ModPublishSettings
         public int networkReadTimeout = 20;
         @NonNls
         public int networkWriteTimeout = 20;
+        @NonNls
+        public int networkMaxUploadsPerHost = 3;
+        @NonNls
+        public boolean networkPreferHttp2 = true;
 
         public void updateNetworkConnectTimeout(int timeout) {
             if (timeout > 0 && timeout < Integer.MAX_VALUE)
@@ -101,6 +105,11 @@ public final class ModPublishSettings
                 networkWriteTimeout = timeout;
         }
 
+        public void updateNetworkMaxUploadsPerHost(int uploads) {
+            if (uploads > 0 && uploads <= 16)
+                networkMaxUploadsPerHost = uploads;
+        }
+
         public Proxy.Type getProxyType() {
             return proxyType == 0 ? Proxy.Type.SOCKS : Proxy.Type.HTTP;
         }
@@ -1,16 +1,22 @@
 package one.pkg.modpublish.version;
 
 
+import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Version implements Comparable<Version> {
-    private static final Pattern RELEASE_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)\\.(\\d+)$");
-    private static final Pattern SHORT_RELEASE_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)$");
-    private static final Pattern PRE_RELEASE_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)\\.(\\d+)-(pre|rc)(\\d+)$");
-    private static final Pattern BETA_PATTERN = Pattern.compile("^b(\\d+)\\.(\\d+)\\.(\\d+)$");
-    private static final Pattern SNAPSHOT_PATTERN = Pattern.compile("^(\\d{2})w(\\d{2})([a-z])(?:_or_([a-z]))?$");
+    /**
+     * Returned by {@link #getKey()} when a version does not fit the packed layout.
+     */
+    public static final long NO_KEY = -1L;
+
+    private static final int COMPONENT_BITS = 13;
+    private static final int TYPE_BITS = 3;
+    private static final int PRE_RELEASE_BITS = 21;
+    private static final int PRE_RELEASE_DIGITS = 6;
+    private static final int INTERN_LIMIT = 4096;
+    private static final Map<String, Version> INTERNED = new ConcurrentHashMap<>();
 
     private final String original;
     private final VersionType type;
@@ -18,79 +24,120 @@ public class Version implements Comparable<Version> {
     private final int minor;
     private final int patch;
     private final String preRelease;
-
+    private final long key;
+
+    /**
+     * Parses a version in a single left-to-right walk. The recognised shapes are, in order of
+     * precedence: {@code 1.2.3}, {@code 1.2}, {@code 1.2.3-pre4} / {@code 1.2.3-rc1}, {@code b1.2.3}
+     * and snapshots such as {@code 23w45a} or {@code 23w45a_or_b}. Anything else is read leniently
+     * as dot separated numbers and only counts as a release if every part is numeric.
+     */
     public Version(String original) {
         this.original = original;
 
-        String trimmed = original.trim();
-        int maj;
-        int min;
-        int pat;
+        String s = original.trim();
+        int len = s.length();
+        int maj = 0;
+        int min = 0;
+        int pat = 0;
         String pre = null;
-        VersionType verType;
-
-        Matcher matcher;
-        if ((matcher = RELEASE_PATTERN.matcher(trimmed)).matches()) {
-            maj = Integer.parseInt(matcher.group(1));
-            min = Integer.parseInt(matcher.group(2));
-            pat = Integer.parseInt(matcher.group(3));
-            verType = VersionType.RELEASE;
-        } else if ((matcher = SHORT_RELEASE_PATTERN.matcher(trimmed)).matches()) {
-            maj = Integer.parseInt(matcher.group(1));
-            min = Integer.parseInt(matcher.group(2));
-            pat = 0;
-            verType = VersionType.RELEASE;
-        } else if ((matcher = PRE_RELEASE_PATTERN.matcher(trimmed)).matches()) {
-            maj = Integer.parseInt(matcher.group(1));
-            min = Integer.parseInt(matcher.group(2));
-            pat = Integer.parseInt(matcher.group(3));
-            String t = matcher.group(4);
-            String n = matcher.group(5);
-            pre = t + n;
-            verType = t.equals("rc") ? VersionType.RELEASE_CANDIDATE : VersionType.PRE_RELEASE;
-        } else if ((matcher = BETA_PATTERN.matcher(trimmed)).matches()) {
-            maj = Integer.parseInt(matcher.group(1));
-            min = Integer.parseInt(matcher.group(2));
-            pat = Integer.parseInt(matcher.group(3));
-            verType = VersionType.BETA;
-        } else if ((matcher = SNAPSHOT_PATTERN.matcher(trimmed)).matches()) {
-            maj = 2000 + Integer.parseInt(matcher.group(1));
-            min = Integer.parseInt(matcher.group(2));
-            pat = matcher.group(3).charAt(0) - 'a';
-            verType = VersionType.SNAPSHOT;
-        } else {
-            int end = trimmed.length();
-            while (end > 0 && trimmed.charAt(end - 1) == '.') {
-                end--;
+        VersionType verType = null;
+
+        if (len > 0) {
+            char first = s.charAt(0);
+            if (isAsciiDigit(first)) {
+                int e1 = digitsEnd(s, 0);
+                if (e1 == 2 && len > 2 && s.charAt(2) == 'w') {
+                    if (isSnapshot(s, len)) {
+                        maj = 2000 + (s.charAt(0) - '0') * 10 + (s.charAt(1) - '0');
+                        min = (s.charAt(3) - '0') * 10 + (s.charAt(4) - '0');
+                        pat = s.charAt(5) - 'a';
+                        verType = VersionType.SNAPSHOT;
+                    }
+                } else if (e1 < len && s.charAt(e1) == '.') {
+                    int e2 = digitsEnd(s, e1 + 1);
+                    if (e2 > e1 + 1) {
+                        int a = parseAscii(s, 0, e1);
+                        int b = parseAscii(s, e1 + 1, e2);
+                        if (e2 == len) {
+                            if (a >= 0 && b >= 0) {
+                                maj = a;
+                                min = b;
+                                verType = VersionType.RELEASE;
+                            }
+                        } else if (s.charAt(e2) == '.') {
+                            int e3 = digitsEnd(s, e2 + 1);
+                            int c = e3 > e2 + 1 ? parseAscii(s, e2 + 1, e3) : -1;
+                            if (a >= 0 && b >= 0 && c >= 0) {
+                                if (e3 == len) {
+                                    maj = a;
+                                    min = b;
+                                    pat = c;
+                                    verType = VersionType.RELEASE;
+                                } else if (s.charAt(e3) == '-') {
+                                    VersionType preType = preReleaseType(s, e3 + 1, len);
+                                    if (preType != null) {
+                                        maj = a;
+                                        min = b;
+                                        pat = c;
+                                        pre = s.substring(e3 + 1);
+                                        verType = preType;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            } else if (first == 'b') {
+                int e1 = digitsEnd(s, 1);
+                int e2 = e1 > 1 && e1 < len && s.charAt(e1) == '.' ? digitsEnd(s, e1 + 1) : -1;
+                int e3 = e2 > e1 + 1 && e2 < len && s.charAt(e2) == '.' ? digitsEnd(s, e2 + 1) : -1;
+                if (e3 == len && e3 > e2 + 1) {
+                    int a = parseAscii(s, 1, e1);
+                    int b = parseAscii(s, e1 + 1, e2);
+                    int c = parseAscii(s, e2 + 1, e3);
+                    if (a >= 0 && b >= 0 && c >= 0) {
+                        maj = a;
+                        min = b;
+                        pat = c;
+                        verType = VersionType.BETA;
+                    }
+                }
             }
-            String sliced = trimmed.substring(0, end);
-
-            int dotIndex1 = sliced.indexOf('.');
-            int dotIndex2 = dotIndex1 != -1 ? sliced.indexOf('.', dotIndex1 + 1) : -1;
-            int dotIndex3 = dotIndex2 != -1 ? sliced.indexOf('.', dotIndex2 + 1) : -1;
-
-            String part1 = dotIndex1 != -1 ? sliced.substring(0, dotIndex1) : sliced;
-            String part2 = dotIndex1 != -1 ? (dotIndex2 != -1 ? sliced.substring(dotIndex1 + 1, dotIndex2) : sliced.substring(dotIndex1 + 1)) : "";
-            String part3 = dotIndex2 != -1 ? (dotIndex3 != -1 ? sliced.substring(dotIndex2 + 1, dotIndex3) : sliced.substring(dotIndex2 + 1)) : "";
-
-            maj = parseIntOrZero(!part1.isEmpty() ? getDigits(part1) : "0");
-            min = parseIntOrZero(!part2.isEmpty() ? getDigits(part2) : "0");
-            pat = parseIntOrZero(!part3.isEmpty() ? getDigits(part3) : "0");
-
-            boolean hasAtLeastTwoParts = dotIndex1 != -1;
+        }
 
-            boolean allPartsDigits = allDigitsString(part1) && (dotIndex1 == -1 || allDigitsString(part2)) && (dotIndex2 == -1 || allDigitsString(part3));
+        if (verType == null) {
+            int end = len;
+            while (end > 0 && s.charAt(end - 1) == '.') {
+                end--;
+            }
 
-            if (dotIndex3 != -1) {
-                int nextDot = dotIndex3;
-                while (nextDot != -1 && allPartsDigits) {
-                    int endDot = sliced.indexOf('.', nextDot + 1);
-                    String part = endDot != -1 ? sliced.substring(nextDot + 1, endDot) : sliced.substring(nextDot + 1);
-                    if (!allDigitsString(part)) {
-                        allPartsDigits = false;
+            maj = 0;
+            min = 0;
+            pat = 0;
+            boolean allPartsDigits = true;
+            boolean hasAtLeastTwoParts = false;
+            int part = 0;
+            int from = 0;
+            while (true) {
+                int dot = s.indexOf('.', from);
+                int to = dot == -1 || dot >= end ? end : dot;
+
+                switch (part) {
+                    case 0 -> maj = leadingNumber(s, from, to);
+                    case 1 -> min = leadingNumber(s, from, to);
+                    case 2 -> pat = leadingNumber(s, from, to);
+                    default -> {
                     }
-                    nextDot = endDot;
                 }
+                if (allPartsDigits && !allDigits(s, from, to)) {
+                    allPartsDigits = false;
+                }
+
+                if (to == end) break;
+                hasAtLeastTwoParts = true;
+                from = to + 1;
+                part++;
             }
 
             verType = (hasAtLeastTwoParts && allPartsDigits) ? VersionType.RELEASE : VersionType.UNKNOWN;
@@ -101,46 +148,137 @@ public class Version implements Comparable<Version> {
         this.patch = pat;
         this.preRelease = pre;
         this.type = verType;
+        this.key = pack(maj, min, pat, typePriority(verType), pre);
     }
 
     public Version(int major, int minor, int patch) {
         this(major + "." + minor + "." + patch);
     }
 
-    private static String getDigits(String str) {
-        int len = str.length();
-        int i = 0;
-        while (i < len && Character.isDigit(str.charAt(i))) {
+    /**
+     * Returns a shared instance for {@code version}. Versions are immutable, so the catalogue and
+     * constraint bounds that name the same string can reuse one parsed object. The table is
+     * dropped once it outgrows {@link #INTERN_LIMIT}, which keeps odd inputs from pinning memory.
+     */
+    public static Version of(String version) {
+        Version cached = INTERNED.get(version);
+        if (cached != null) return cached;
+
+        if (INTERNED.size() >= INTERN_LIMIT) INTERNED.clear();
+        Version parsed = new Version(version);
+        Version previous = INTERNED.putIfAbsent(version, parsed);
+        return previous != null ? previous : parsed;
+    }
+
+    /**
+     * Packs a version into a non-negative long whose natural order matches {@link #compareTo}:
+     * 13 bits each for major, minor and patch, 3 bits of type priority and 21 bits for the
+     * pre-release number. The number is ordered as a string, like {@code compareTo} does, by
+     * writing up to six digits in base 11 with 0 as the end marker.
+     */
+    private static long pack(int major, int minor, int patch, int typePriority, String preRelease) {
+        int limit = 1 << COMPONENT_BITS;
+        if (major < 0 || major >= limit || minor < 0 || minor >= limit || patch < 0 || patch >= limit) {
+            return NO_KEY;
+        }
+
+        long ordinal = 0;
+        if (preRelease != null) {
+            int from = preRelease.startsWith("pre") ? 3 : 2;
+            int digits = preRelease.length() - from;
+            if (digits > PRE_RELEASE_DIGITS) return NO_KEY;
+            for (int i = 0; i < PRE_RELEASE_DIGITS; i++) {
+                ordinal = ordinal * 11 + (i < digits ? preRelease.charAt(from + i) - '0' + 1 : 0);
+            }
+        }
+
+        long key = major;
+        key = key << COMPONENT_BITS | minor;
+        key = key << COMPONENT_BITS | patch;
+        key = key << TYPE_BITS | typePriority;
+        return key << PRE_RELEASE_BITS | ordinal;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLower(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static int digitsEnd(String s, int from) {
+        int i = from;
+        int len = s.length();
+        while (i < len && isAsciiDigit(s.charAt(i))) {
             i++;
         }
-        return i == len ? str : str.substring(0, i);
+        return i;
     }
 
-    private static boolean allDigits(String[] parts) {
-        for (String part : parts) {
-            if (!allDigitsString(part)) return false;
+    /**
+     * Parses {@code [from, to)} as ASCII digits, or returns {@code -1} if the value does not fit an int.
+     */
+    private static int parseAscii(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) return -1;
         }
-        return true;
+        return (int) value;
+    }
+
+    // ##w##x or ##w##x_or_y
+    private static boolean isSnapshot(String s, int len) {
+        if (len != 6 && len != 11) return false;
+        if (!isAsciiDigit(s.charAt(3)) || !isAsciiDigit(s.charAt(4)) || !isAsciiLower(s.charAt(5))) return false;
+        return len == 6 || (s.startsWith("_or_", 6) && isAsciiLower(s.charAt(10)));
     }
 
-    private static boolean allDigitsString(String str) {
-        if (str.isEmpty()) return false;
-        for (int i = 0; i < str.length(); i++) {
-            if (!Character.isDigit(str.charAt(i))) return false;
+    // pre# or rc# up to the end of the string
+    private static VersionType preReleaseType(String s, int from, int len) {
+        VersionType preType;
+        int digits;
+        if (s.startsWith("pre", from)) {
+            preType = VersionType.PRE_RELEASE;
+            digits = from + 3;
+        } else if (s.startsWith("rc", from)) {
+            preType = VersionType.RELEASE_CANDIDATE;
+            digits = from + 2;
+        } else {
+            return null;
         }
-        return true;
+        return digits < len && digitsEnd(s, digits) == len ? preType : null;
     }
 
-    private static int parseIntOrZero(String str) {
-        try {
-            return Integer.parseInt(str);
-        } catch (NumberFormatException e) {
-            return 0;
+    /**
+     * Reads the digits at the start of {@code [from, to)}; no digits or an overflowing value give {@code 0}.
+     */
+    private static int leadingNumber(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!Character.isDigit(c)) break;
+            value = value * 10 + Character.digit(c, 10);
+            if (value > Integer.MAX_VALUE) return 0;
         }
+        return (int) value;
+    }
+
+    private static boolean allDigits(String s, int from, int to) {
+        if (from >= to) return false;
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return true;
     }
 
     @Override
     public int compareTo(Version other) {
+        if (this.key != NO_KEY && other.key != NO_KEY) {
+            return Long.compare(this.key, other.key);
+        }
+
         int result = Integer.compare(this.major, other.major);
         if (result != 0) return result;
 
@@ -150,7 +288,7 @@ public class Version implements Comparable<Version> {
         result = Integer.compare(this.patch, other.patch);
         if (result != 0) return result;
 
-        result = Integer.compare(this.typePriority(), other.typePriority());
+        result = Integer.compare(typePriority(this.type), typePriority(other.type));
         if (result != 0) return result;
 
         return Objects.compare(this.preRelease != null ? this.preRelease : "",
@@ -158,7 +296,7 @@ public class Version implements Comparable<Version> {
                 String::compareTo);
     }
 
-    private int typePriority() {
+    private static int typePriority(VersionType type) {
         return switch (type) {
             case BETA -> 1;
             case SNAPSHOT -> 2;
@@ -215,6 +353,14 @@ public class Version implements Comparable<Version> {
         return preRelease;
     }
 
+    /**
+     * Returns the packed ordering key, or {@link #NO_KEY} if a component is out of range.
+     * Two keyed versions compare exactly as their keys do.
+     */
+    public long getKey() {
+        return key;
+    }
+
     public enum VersionType {
         RELEASE,
         PRE_RELEASE,
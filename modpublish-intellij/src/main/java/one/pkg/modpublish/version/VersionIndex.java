@@ -0,0 +1,110 @@
+package one.pkg.modpublish.version;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A list of versions sorted by {@link Version#getKey()}, stored as primitive arrays so that range
+ * lookups are binary searches over longs.
+ * <p>
+ * Positions refer to the sorted order; {@link #sourceIndex(int)} maps them back to the list the
+ * index was built from. Versions without a key cannot be placed in the order and are reported
+ * separately by {@link #unkeyed()}.
+ */
+public final class VersionIndex {
+    private final List<Version> versions;
+    private final long[] keys;
+    private final int[] sourceIndices;
+    private final int[] unkeyed;
+
+    private VersionIndex(List<Version> versions, long[] keys, int[] sourceIndices, int[] unkeyed) {
+        this.versions = versions;
+        this.keys = keys;
+        this.sourceIndices = sourceIndices;
+        this.unkeyed = unkeyed;
+    }
+
+    public static VersionIndex of(List<Version> source) {
+        List<Version> versions = List.copyOf(source);
+        int size = versions.size();
+        Integer[] order = new Integer[size];
+        int keyed = 0;
+        int[] unkeyed = new int[size];
+        int unkeyedCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (versions.get(i).getKey() != Version.NO_KEY) {
+                order[keyed++] = i;
+            } else {
+                unkeyed[unkeyedCount++] = i;
+            }
+        }
+
+        Arrays.sort(order, 0, keyed, (a, b) -> Long.compare(versions.get(a).getKey(), versions.get(b).getKey()));
+
+        long[] keys = new long[keyed];
+        int[] sourceIndices = new int[keyed];
+        for (int i = 0; i < keyed; i++) {
+            sourceIndices[i] = order[i];
+            keys[i] = versions.get(order[i]).getKey();
+        }
+        return new VersionIndex(versions, keys, sourceIndices, Arrays.copyOf(unkeyed, unkeyedCount));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of versions the index was built from, keyed or not.
+     */
+    public int sourceSize() {
+        return versions.size();
+    }
+
+    public Version source(int sourceIndex) {
+        return versions.get(sourceIndex);
+    }
+
+    public long key(int position) {
+        return keys[position];
+    }
+
+    public int sourceIndex(int position) {
+        return sourceIndices[position];
+    }
+
+    /**
+     * Returns the source indices of versions that have no key.
+     */
+    public int[] unkeyed() {
+        return unkeyed.clone();
+    }
+
+    /**
+     * Returns the first position whose key is {@code >= key}, or {@link #size()} if there is none.
+     */
+    public int lowerBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first position whose key is {@code > key}, or {@link #size()} if there is none.
+     */
+    public int upperBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -8,17 +8,19 @@ import java.util.List;
 
 public class CaretConstraint implements VersionConstraint {
     private final Version baseVersion;
+    private final Version upperBound;
     private final String original;
 
     public CaretConstraint(String versionStr) {
-        this.baseVersion = new Version(versionStr.substring(1));
+        this.baseVersion = Version.of(versionStr.substring(1));
+        this.upperBound = Version.of((baseVersion.getMajor() + 1) + ".0.0");
         this.original = versionStr;
     }
 
     @Override
     public boolean satisfies(Version version) {
         return version.compareTo(baseVersion) >= 0 &&
-                version.compareTo(new Version(baseVersion.getMajor() + 1, 0, 0)) < 0;
+                version.compareTo(upperBound) < 0;
     }
 
     @Override
@@ -28,16 +30,26 @@ public class CaretConstraint implements VersionConstraint {
 
     @Override
     public List<String> getVersions() {
-        return Collections.singletonList(">=" + baseVersion + " <" + (baseVersion.getMajor() + 1) + ".0.0");
+        return Collections.singletonList(">=" + baseVersion + " <" + upperBound);
     }
 
     @Override
-    public String getLowVersion() {
-        return baseVersion.toString();
+    public Version getLowBound() {
+        return baseVersion;
     }
 
     @Override
-    public String getMaxVersion() {
-        return (baseVersion.getMajor() + 1) + ".0.0";
+    public boolean isLowInclusive() {
+        return true;
+    }
+
+    @Override
+    public Version getMaxBound() {
+        return upperBound;
+    }
+
+    @Override
+    public boolean isMaxInclusive() {
+        return false;
     }
 }
@@ -6,10 +6,62 @@ import one.pkg.modpublish.version.Version;
 import java.util.ArrayList;
 import java.util.List;
 
-public record CompositeConstraint(List<VersionConstraint> constraints, String original) implements VersionConstraint {
+/**
+ * Accepts a version only if every child constraint does. The bounds are the tightest of the
+ * children's bounds and are computed once, here.
+ */
+public final class CompositeConstraint implements VersionConstraint {
+    private final List<VersionConstraint> constraints;
+    private final String original;
+    private final Version lowBound;
+    private final boolean lowInclusive;
+    private final Version maxBound;
+    private final boolean maxInclusive;
+
     public CompositeConstraint(List<VersionConstraint> constraints, String original) {
-        this.constraints = new ArrayList<>(constraints);
+        this.constraints = List.copyOf(constraints);
         this.original = original;
+
+        Version low = null;
+        boolean lowIncl = false;
+        Version max = null;
+        boolean maxIncl = false;
+        for (VersionConstraint constraint : this.constraints) {
+            Version childLow = constraint.getLowBound();
+            if (childLow != null) {
+                int cmp = low == null ? 1 : childLow.compareTo(low);
+                if (cmp > 0) {
+                    low = childLow;
+                    lowIncl = constraint.isLowInclusive();
+                } else if (cmp == 0) {
+                    lowIncl &= constraint.isLowInclusive();
+                }
+            }
+
+            Version childMax = constraint.getMaxBound();
+            if (childMax != null) {
+                int cmp = max == null ? -1 : childMax.compareTo(max);
+                if (cmp < 0) {
+                    max = childMax;
+                    maxIncl = constraint.isMaxInclusive();
+                } else if (cmp == 0) {
+                    maxIncl &= constraint.isMaxInclusive();
+                }
+            }
+        }
+        this.lowBound = low;
+        this.lowInclusive = lowIncl;
+        this.maxBound = max;
+        this.maxInclusive = maxIncl;
+    }
+
+    public List<VersionConstraint> constraints() {
+        return constraints;
+    }
+
+    @Override
+    public String original() {
+        return original;
     }
 
     @Override
@@ -32,32 +84,22 @@ public record CompositeConstraint(List<VersionConstraint> constraints, String or
     }
 
     @Override
-    public String getLowVersion() {
-        Version maxVersion = null;
-        for (VersionConstraint constraint : constraints) {
-            String lowVersion = constraint.getLowVersion();
-            if (!lowVersion.isEmpty()) {
-                Version version = new Version(lowVersion);
-                if (maxVersion == null || version.compareTo(maxVersion) > 0) {
-                    maxVersion = version;
-                }
-            }
-        }
-        return maxVersion != null ? maxVersion.toString() : "";
+    public Version getLowBound() {
+        return lowBound;
     }
 
     @Override
-    public String getMaxVersion() {
-        Version minVersion = null;
-        for (VersionConstraint constraint : constraints) {
-            String maxVersion = constraint.getMaxVersion();
-            if (!maxVersion.isEmpty()) {
-                Version version = new Version(maxVersion);
-                if (minVersion == null || version.compareTo(minVersion) < 0) {
-                    minVersion = version;
-                }
-            }
-        }
-        return minVersion != null ? minVersion.toString() : "";
+    public boolean isLowInclusive() {
+        return lowInclusive;
+    }
+
+    @Override
+    public Version getMaxBound() {
+        return maxBound;
+    }
+
+    @Override
+    public boolean isMaxInclusive() {
+        return maxInclusive;
     }
 }
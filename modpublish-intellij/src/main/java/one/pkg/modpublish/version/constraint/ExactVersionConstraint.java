@@ -11,7 +11,7 @@ public class ExactVersionConstraint implements VersionConstraint {
     private final String original;
 
     public ExactVersionConstraint(String versionStr) {
-        this.targetVersion = new Version(versionStr);
+        this.targetVersion = Version.of(versionStr);
         this.original = versionStr;
     }
 
@@ -31,12 +31,22 @@ public class ExactVersionConstraint implements VersionConstraint {
     }
 
     @Override
-    public String getLowVersion() {
-        return targetVersion.toString();
+    public Version getLowBound() {
+        return targetVersion;
     }
 
     @Override
-    public String getMaxVersion() {
-        return targetVersion.toString();
+    public boolean isLowInclusive() {
+        return true;
+    }
+
+    @Override
+    public Version getMaxBound() {
+        return targetVersion;
+    }
+
+    @Override
+    public boolean isMaxInclusive() {
+        return true;
     }
 }
@@ -38,12 +38,22 @@ public record RangeConstraint(Version minVer, Version maxVer, boolean includeMin
     }
 
     @Override
-    public String getLowVersion() {
-        return minVer != null ? minVer.toString() : "";
+    public Version getLowBound() {
+        return minVer;
     }
 
     @Override
-    public String getMaxVersion() {
-        return maxVer != null ? maxVer.toString() : "";
+    public boolean isLowInclusive() {
+        return includeMin;
+    }
+
+    @Override
+    public Version getMaxBound() {
+        return maxVer;
+    }
+
+    @Override
+    public boolean isMaxInclusive() {
+        return includeMax;
     }
 }
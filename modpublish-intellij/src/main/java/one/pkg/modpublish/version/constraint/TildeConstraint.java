@@ -8,33 +8,43 @@ import java.util.List;
 
 public class TildeConstraint implements VersionConstraint {
     private final Version baseVersion;
+    private final Version upperBound;
     private final String original;
 
     public TildeConstraint(String versionStr) {
-        this.baseVersion = new Version(versionStr.substring(1));
+        this.baseVersion = Version.of(versionStr.substring(1));
+        this.upperBound = Version.of(baseVersion.getMajor() + "." + (baseVersion.getMinor() + 1) + ".0");
         this.original = versionStr;
     }
 
     @Override
     public boolean satisfies(Version version) {
-        if (version.compareTo(baseVersion) < 0) return false;
-        Version upperBound = new Version(baseVersion.getMajor(), baseVersion.getMinor() + 1, 0);
-        return version.compareTo(upperBound) < 0;
+        return version.compareTo(baseVersion) >= 0 && version.compareTo(upperBound) < 0;
     }
 
     @Override
     public List<String> getVersions() {
-        return Collections.singletonList(">=" + baseVersion + " <" + baseVersion.getMajor() + "." + (baseVersion.getMinor() + 1) + ".0");
+        return Collections.singletonList(">=" + baseVersion + " <" + upperBound);
     }
 
     @Override
-    public String getLowVersion() {
-        return baseVersion.toString();
+    public Version getLowBound() {
+        return baseVersion;
     }
 
     @Override
-    public String getMaxVersion() {
-        return baseVersion.getMajor() + "." + (baseVersion.getMinor() + 1) + ".0";
+    public boolean isLowInclusive() {
+        return true;
+    }
+
+    @Override
+    public Version getMaxBound() {
+        return upperBound;
+    }
+
+    @Override
+    public boolean isMaxInclusive() {
+        return false;
     }
 
     @Override
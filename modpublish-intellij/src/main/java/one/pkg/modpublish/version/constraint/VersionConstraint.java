@@ -44,12 +44,15 @@ public interface VersionConstraint {
      * Retrieves the lowest version that satisfies the version constraint.
      * <p>
      * The result depends on how the specific implementation computes the lowest version.
-     * It may return null if the constraint defines no minimum version.
+     * It returns an empty string if the constraint defines no minimum version.
      * <p>
      *
      * @return the lowest version as a string
      */
-    String getLowVersion();
+    default String getLowVersion() {
+        Version low = getLowBound();
+        return low != null ? low.toString() : "";
+    }
 
     /**
      * Retrieves the highest version defined by the version constraint.
@@ -59,5 +62,34 @@ public interface VersionConstraint {
      *
      * @return the maximum version as a string
      */
-    String getMaxVersion();
+    default String getMaxVersion() {
+        Version max = getMaxBound();
+        return max != null ? max.toString() : "";
+    }
+
+    /**
+     * Returns the lower bound of the accepted versions, or {@code null} if there is none.
+     * Implementations compute it once, when they are constructed.
+     *
+     * @return the lower bound, or null
+     */
+    Version getLowBound();
+
+    /**
+     * @return whether {@link #getLowBound()} itself is accepted
+     */
+    boolean isLowInclusive();
+
+    /**
+     * Returns the upper bound of the accepted versions, or {@code null} if there is none.
+     * Implementations compute it once, when they are constructed.
+     *
+     * @return the upper bound, or null
+     */
+    Version getMaxBound();
+
+    /**
+     * @return whether {@link #getMaxBound()} itself is accepted
+     */
+    boolean isMaxInclusive();
 }
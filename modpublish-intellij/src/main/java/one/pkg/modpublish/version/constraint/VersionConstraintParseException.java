@@ -0,0 +1,24 @@
+package one.pkg.modpublish.version.constraint;
+
+/**
+ * Thrown by {@link VersionConstraintParser} when a constraint cannot be parsed. Carries the
+ * input and the character position at which parsing failed.
+ */
+public class VersionConstraintParseException extends IllegalArgumentException {
+    private final String input;
+    private final int position;
+
+    public VersionConstraintParseException(String message, String input, int position) {
+        super(message);
+        this.input = input;
+        this.position = position;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
@@ -3,83 +3,352 @@ package one.pkg.modpublish.version.constraint;
 import one.pkg.modpublish.version.Version;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 public class VersionConstraintParser {
-    private static final String VERSION_PATTERN =
-            "\\d+\\.\\d+\\.\\d+(?:-(?:pre|rc)\\d+)?|b\\d+\\.\\d+\\.\\d+|\\d{2}w\\d{2}[a-z](?:_or_[a-z])?|[\\w.-]+";
+    private static final int CACHE_SIZE = 256;
+    private static final Map<String, VersionConstraint> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VersionConstraint> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Parses a constraint, reusing the result for strings seen recently. Constraints are
+     * immutable, so the same instance can be handed to every caller.
+     */
+    public static VersionConstraint parse(String constraintStr) throws IllegalArgumentException {
+        VersionConstraint cached = CACHE.get(constraintStr);
+        if (cached != null) return cached;
+
+        VersionConstraint parsed = parseUncached(constraintStr);
+        CACHE.put(constraintStr, parsed);
+        return parsed;
+    }
+
+    // Package-private so the benchmarks can measure parsing without the cache.
+    static VersionConstraint parseUncached(String constraintStr) throws IllegalArgumentException {
+        if (constraintStr.trim().isEmpty()) {
+            throw new VersionConstraintParseException("Version constraint cannot be empty", constraintStr, 0);
+        }
+        return new Parser(constraintStr).parse();
+    }
+
+    /**
+     * Recognises a single whitespace free term, or returns {@code null}. In order: plain versions
+     * ({@code 1.20.1}), {@code =v}, {@code a-b} ranges, {@code ~v}, {@code ^v}, comparisons
+     * ({@code >=v}) and finally any other single version token.
+     */
+    private static VersionConstraint parseTerm(String word, String original) {
+        int len = word.length();
+
+        if (isVersionText(word, 0, len)) {
+            if (isSimpleVersion(word)) return new ExactVersionConstraint(word);
+
+            int split = rangeSplit(word);
+            if (split != -1) {
+                Version min = Version.of(word.substring(0, split));
+                Version max = Version.of(word.substring(split + 1));
+                return new RangeConstraint(min, max, true, true, original);
+            }
+            return new ExactVersionConstraint(word);
+        }
+
+        return switch (word.charAt(0)) {
+            case '=' -> isVersionText(word, 1, len) ? new ExactVersionConstraint(word.substring(1)) : null;
+            case '~' -> isVersionText(word, 1, len) ? new TildeConstraint(word) : null;
+            case '^' -> isVersionText(word, 1, len) ? new CaretConstraint(word) : null;
+            case '>', '<' -> {
+                int opEnd = len > 1 && word.charAt(1) == '=' ? 2 : 1;
+                yield isVersionText(word, opEnd, len)
+                        ? parseComparison(word.substring(0, opEnd), word.substring(opEnd), original)
+                        : null;
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Recursive-descent parser over the whole constraint language:
+     * <pre>
+     * constraint := and ("||" and)*
+     * and        := range (whitespace range)*
+     * range      := term (whitespace "-" whitespace term)?
+     * term       := "[" ... "]" | "(" ... ")" | word
+     * </pre>
+     * Every character is read once, so long Maven lists and many-term composites parse in
+     * linear time. Failures carry the position of the offending term.
+     */
+    private static final class Parser {
+        private final String input;
+        private final int begin;
+        private final int end;
+        private int pos;
+
+        Parser(String input) {
+            this.input = input;
+            int start = 0;
+            int stop = input.length();
+            while (start < stop && input.charAt(start) <= ' ') start++;
+            while (stop > start && input.charAt(stop - 1) <= ' ') stop--;
+            this.begin = start;
+            this.pos = start;
+            this.end = stop;
+        }
+
+        VersionConstraint parse() {
+            List<VersionConstraint> alternatives = new ArrayList<>();
+            alternatives.add(parseAnd());
+            while (atOr()) {
+                pos += 2;
+                alternatives.add(parseAnd());
+            }
+            return alternatives.size() == 1
+                    ? alternatives.get(0)
+                    : new OrConstraint(alternatives, input.substring(begin, end));
+        }
+
+        private VersionConstraint parseAnd() {
+            skipWhitespace();
+            if (pos >= end || atOr()) throw error("Expected a version constraint", pos);
+
+            int start = pos;
+            List<VersionConstraint> terms = new ArrayList<>();
+            terms.add(parseRange());
+            while (true) {
+                int mark = pos;
+                skipWhitespace();
+                if (pos >= end || atOr()) {
+                    pos = mark;
+                    break;
+                }
+                terms.add(parseRange());
+            }
+
+            return terms.size() == 1 ? terms.get(0) : new CompositeConstraint(terms, input.substring(start, pos));
+        }
+
+        // Consumes whitespace so a trailing "||" or the end of input is visible to the caller.
+        private boolean atOr() {
+            int mark = pos;
+            skipWhitespace();
+            if (input.startsWith("||", pos) && pos + 2 <= end) return true;
+            pos = mark;
+            return false;
+        }
+
+        // npm style "a - b": an inclusive range written with spaces around the hyphen.
+        private VersionConstraint parseRange() {
+            int start = pos;
+            if (isBracket(input.charAt(pos))) return parseMaven();
+
+            String word = readWord();
+            if (isVersionText(word, 0, word.length())) {
+                int mark = pos;
+                skipWhitespace();
+                if (pos > mark && pos + 1 < end && input.charAt(pos) == '-' && isWhitespace(input.charAt(pos + 1))) {
+                    pos++;
+                    skipWhitespace();
+                    int upperStart = pos;
+                    String upper = pos < end && !isBracket(input.charAt(pos)) ? readWord() : "";
+                    if (!isVersionText(upper, 0, upper.length())) {
+                        throw error("Expected a version after '-'", upperStart);
+                    }
+                    return new RangeConstraint(Version.of(word), Version.of(upper), true, true,
+                            input.substring(start, pos));
+                }
+                pos = mark;
+            }
 
-    private static final Pattern SIMPLE_VERSION_PATTERN = Pattern.compile("^(\\d+(?:\\.\\d+){1,2})$");
-    private static final Pattern EXACT_PATTERN = Pattern.compile("^(" + VERSION_PATTERN + ")$");
-    private static final Pattern RANGE_PATTERN = Pattern.compile("^(" + VERSION_PATTERN + ")-(" + VERSION_PATTERN + ")$");
-    private static final Pattern EQUAL_PATTERN = Pattern.compile("^=(" + VERSION_PATTERN + ")$");
-    private static final Pattern TILDE_PATTERN = Pattern.compile("^~(" + VERSION_PATTERN + ")$");
-    private static final Pattern CARET_PATTERN = Pattern.compile("^\\^(" + VERSION_PATTERN + ")$");
-    private static final Pattern COMPARISON_PATTERN = Pattern.compile("^(>=|<=|>|<)\\s*(" + VERSION_PATTERN + ")$");
-    private static final Pattern MAVEN_RANGE_PATTERN = Pattern.compile("^[\\[(]([\\w.,\\s-]+)[])]$");
-    private static final Pattern COMPOSITE_PATTERN = Pattern.compile("^(.+?)\\s+(.+)$");
+            // A lone term keeps the input as written, "> = 1.20" included, as its original text.
+            VersionConstraint term = parseTerm(word, start == begin && pos == end ? input.substring(begin, end) : word);
+            if (term == null) throw error("Unrecognised version term '" + word + "'", start);
+            return term;
+        }
+
+        private VersionConstraint parseMaven() {
+            int start = pos;
+            int close = start + 1;
+            while (close < end && input.charAt(close) != ']' && input.charAt(close) != ')') close++;
+            if (close >= end) throw error("Unclosed version range", start);
+            if (!isMavenText(input, start + 1, close)) throw error("Invalid version range", start);
 
-    public static one.pkg.modpublish.version.constraint.VersionConstraint parse(String constraintStr) throws IllegalArgumentException {
-        String trimmed = constraintStr.trim();
-        if (trimmed.isEmpty()) {
-            throw new IllegalArgumentException("Version constraint cannot be empty");
+            pos = close + 1;
+            if (pos < end && !isWhitespace(input.charAt(pos)) && !input.startsWith("||", pos)) {
+                throw error("Expected whitespace after version range", pos);
+            }
+            return parseMavenRange(input.substring(start, pos), input.substring(start + 1, close));
         }
 
-        String normalized = trimmed.replaceAll("([><=])\\s+", "$1");
+        /**
+         * Reads up to the next whitespace or "||". Whitespace after '>', '<' or '=' is dropped,
+         * so "> = 1.20" reads as ">=1.20".
+         */
+        private String readWord() {
+            int start = pos;
+            boolean spaced = false;
+            while (pos < end) {
+                char c = input.charAt(pos);
+                if (isWhitespace(c) || input.startsWith("||", pos)) break;
+                pos++;
+                if (c == '>' || c == '<' || c == '=') {
+                    while (pos < end && isWhitespace(input.charAt(pos))) {
+                        pos++;
+                        spaced = true;
+                    }
+                }
+            }
+            String word = input.substring(start, pos);
+            return spaced ? normalize(word) : word;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && isWhitespace(input.charAt(pos))) pos++;
+        }
 
-        Matcher simpleMatcher = SIMPLE_VERSION_PATTERN.matcher(normalized);
-        if (simpleMatcher.matches()) {
-            return new ExactVersionConstraint(simpleMatcher.group(1));
+        private static boolean isBracket(char c) {
+            return c == '[' || c == '(';
         }
 
-        Matcher equalMatcher = EQUAL_PATTERN.matcher(normalized);
-        if (equalMatcher.matches()) return new ExactVersionConstraint(equalMatcher.group(1));
+        private VersionConstraintParseException error(String reason, int position) {
+            return new VersionConstraintParseException(
+                    "Unable to parse version constraint: " + input + " (" + reason + " at position " + position + ")",
+                    input, position);
+        }
+    }
+
+    // Drops whitespace that follows '>', '<' or '=', so "> = 1.20" reads as ">=1.20".
+    private static String normalize(String s) {
+        StringBuilder builder = null;
+        boolean skip = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (skip && isWhitespace(c)) {
+                if (builder == null) builder = new StringBuilder(s.length()).append(s, 0, i);
+                continue;
+            }
+            skip = c == '>' || c == '<' || c == '=';
+            if (builder != null) builder.append(c);
+        }
+        return builder != null ? builder.toString() : s;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
 
-        Matcher rangeMatcher = RANGE_PATTERN.matcher(normalized);
-        if (rangeMatcher.matches()) {
-            Version min = new Version(rangeMatcher.group(1));
-            Version max = new Version(rangeMatcher.group(2));
-            return new RangeConstraint(min, max, true, true, trimmed);
+    // A non-empty run of word characters, '.' and '-', the widest form a single version token can take.
+    private static boolean isVersionText(String s, int from, int to) {
+        if (from >= to) return false;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isWordChar(c) && c != '.' && c != '-') return false;
         }
+        return true;
+    }
 
-        Matcher tildeMatcher = TILDE_PATTERN.matcher(normalized);
-        if (tildeMatcher.matches()) return new TildeConstraint(trimmed);
+    private static boolean isMavenText(String s, int from, int to) {
+        if (from >= to) return false;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isWordChar(c) && c != '.' && c != ',' && c != '-' && !isWhitespace(c)) return false;
+        }
+        return true;
+    }
 
-        Matcher caretMatcher = CARET_PATTERN.matcher(normalized);
-        if (caretMatcher.matches()) return new CaretConstraint(trimmed);
+    private static int digitsEnd(String s, int from) {
+        int i = from;
+        while (i < s.length() && isDigit(s.charAt(i))) i++;
+        return i;
+    }
 
-        Matcher comparisonMatcher = COMPARISON_PATTERN.matcher(normalized);
-        if (comparisonMatcher.matches()) {
-            return parseComparison(comparisonMatcher.group(1), comparisonMatcher.group(2), trimmed);
+    // digits(.digits){1,2}
+    private static boolean isSimpleVersion(String s) {
+        int parts = 0;
+        int i = 0;
+        while (true) {
+            int end = digitsEnd(s, i);
+            if (end == i) return false;
+            parts++;
+            if (end == s.length()) return parts >= 2 && parts <= 3;
+            if (s.charAt(end) != '.' || parts == 3) return false;
+            i = end + 1;
         }
+    }
 
-        Matcher mavenRangeMatcher = MAVEN_RANGE_PATTERN.matcher(normalized);
-        if (mavenRangeMatcher.matches()) {
-            return parseMavenRange(trimmed, mavenRangeMatcher.group(1));
+    // digits.digits.digits, or -1
+    private static int releaseEnd(String s, int from) {
+        int i = from;
+        for (int part = 0; part < 3; part++) {
+            if (part > 0) {
+                if (i >= s.length() || s.charAt(i) != '.') return -1;
+                i++;
+            }
+            int end = digitsEnd(s, i);
+            if (end == i) return -1;
+            i = end;
         }
+        return i;
+    }
+
+    private static boolean isRangeSplit(String s, int at) {
+        return at > 0 && at < s.length() - 1 && s.charAt(at) == '-';
+    }
 
-        Matcher compositeMatcher = COMPOSITE_PATTERN.matcher(normalized);
-        if (compositeMatcher.matches()) {
-            try {
-                VersionConstraint first = parse(compositeMatcher.group(1));
-                VersionConstraint second = parse(compositeMatcher.group(2));
-                return new CompositeConstraint(List.of(first, second), trimmed);
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Unable to parse version constraint: " + constraintStr);
+    /**
+     * Finds the '-' separating an {@code a-b} range in a string of version characters, or -1.
+     * The lower bound is read as a release (with an optional pre/rc suffix), a beta or a snapshot
+     * when one fits; otherwise the split is taken at the last '-'.
+     */
+    private static int rangeSplit(String s) {
+        int release = releaseEnd(s, 0);
+        if (release != -1) {
+            int suffix = release + 1;
+            if (s.startsWith("-pre", release)) suffix = release + 4;
+            else if (s.startsWith("-rc", release)) suffix = release + 3;
+            if (suffix > release + 1) {
+                int end = digitsEnd(s, suffix);
+                if (end > suffix && isRangeSplit(s, end)) return end;
             }
+            if (isRangeSplit(s, release)) return release;
+        }
+
+        if (s.charAt(0) == 'b') {
+            int beta = releaseEnd(s, 1);
+            if (beta != -1 && isRangeSplit(s, beta)) return beta;
         }
 
-        Matcher exactMatcher = EXACT_PATTERN.matcher(normalized);
-        if (exactMatcher.matches()) return new ExactVersionConstraint(exactMatcher.group(1));
+        if (s.length() >= 6 && digitsEnd(s, 0) == 2 && s.charAt(2) == 'w' && isDigit(s.charAt(3))
+                && isDigit(s.charAt(4)) && s.charAt(5) >= 'a' && s.charAt(5) <= 'z') {
+            if (s.startsWith("_or_", 6) && s.length() > 10 && s.charAt(10) >= 'a' && s.charAt(10) <= 'z'
+                    && isRangeSplit(s, 11)) {
+                return 11;
+            }
+            if (isRangeSplit(s, 6)) return 6;
+        }
 
-        throw new IllegalArgumentException("Unable to parse version constraint: " + constraintStr);
+        for (int i = s.length() - 2; i > 0; i--) {
+            if (s.charAt(i) == '-') return i;
+        }
+        return -1;
     }
 
     private static VersionConstraint parseComparison(String operator, String versionStr, String original)
             throws IllegalArgumentException {
-        Version version = new Version(versionStr);
+        Version version = Version.of(versionStr);
         return switch (operator) {
             case ">=" -> new RangeConstraint(version, null, true, false, original);
             case "<=" -> new RangeConstraint(null, version, false, true, original);
@@ -103,7 +372,7 @@ public class VersionConstraintParser {
 
         if (commaIndex == -1) {
             if (original.endsWith(",)")) {
-                Version min = new Version(sliced.trim());
+                Version min = Version.of(sliced.trim());
                 return new RangeConstraint(min, null, includeMin, false, original);
             } else {
                 return new ExactVersionConstraint(sliced.trim());
@@ -116,16 +385,16 @@ public class VersionConstraintParser {
             String part1 = sliced.substring(0, commaIndex).trim();
             String part2 = sliced.substring(commaIndex + 1).trim();
 
-            Version min = new Version(part1);
-            Version max = part2.isEmpty() ? null : new Version(part2);
+            Version min = Version.of(part1);
+            Version max = part2.isEmpty() ? null : Version.of(part2);
             return new RangeConstraint(min, max, includeMin, includeMax, original);
         } else {
             String[] parts = sliced.split(",");
             String part1 = parts[0].trim();
             String partLast = parts[parts.length - 1].trim();
 
-            Version min = new Version(part1);
-            Version max = partLast.isEmpty() ? null : new Version(partLast);
+            Version min = Version.of(part1);
+            Version max = partLast.isEmpty() ? null : Version.of(partLast);
             RangeConstraint range = new RangeConstraint(min, max, includeMin, includeMax, original);
 
             List<VersionConstraint> constraints = new ArrayList<>();
@@ -0,0 +1,208 @@
+package one.pkg.modpublish.version.constraint;
+
+import one.pkg.modpublish.version.Version;
+import one.pkg.modpublish.version.VersionIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A constraint flattened into sorted, disjoint intervals.
+ * <p>
+ * {@link #compile(VersionConstraint)} turns any tree built from the constraint types in this
+ * package into an equivalent set, after which matching against a {@link VersionIndex} takes two
+ * binary searches per interval instead of a {@code satisfies} call per catalogue entry.
+ */
+public final class VersionRangeSet {
+    private static final VersionRangeSet EMPTY = new VersionRangeSet(List.of());
+    private static final VersionRangeSet ALL = new VersionRangeSet(List.of(new Interval(null, false, null, false)));
+
+    private final List<Interval> intervals;
+
+    private VersionRangeSet(List<Interval> intervals) {
+        this.intervals = intervals;
+    }
+
+    /**
+     * Compiles a constraint, or returns {@code null} if it contains a type this class does not know.
+     */
+    public static VersionRangeSet compile(VersionConstraint constraint) {
+        if (constraint instanceof RangeConstraint || constraint instanceof CaretConstraint
+                || constraint instanceof TildeConstraint || constraint instanceof ExactVersionConstraint) {
+            return of(new Interval(constraint.getLowBound(), constraint.isLowInclusive(),
+                    constraint.getMaxBound(), constraint.isMaxInclusive()));
+        }
+        if (constraint instanceof OrConstraint or) {
+            VersionRangeSet result = EMPTY;
+            for (VersionConstraint child : or.constraints()) {
+                VersionRangeSet compiled = compile(child);
+                if (compiled == null) return null;
+                result = result.union(compiled);
+            }
+            return result;
+        }
+        if (constraint instanceof CompositeConstraint composite) {
+            VersionRangeSet result = ALL;
+            for (VersionConstraint child : composite.constraints()) {
+                VersionRangeSet compiled = compile(child);
+                if (compiled == null) return null;
+                result = result.intersect(compiled);
+            }
+            return result;
+        }
+        return null;
+    }
+
+    private static VersionRangeSet of(Interval interval) {
+        return interval.isEmpty() ? EMPTY : new VersionRangeSet(List.of(interval));
+    }
+
+    public List<Interval> intervals() {
+        return intervals;
+    }
+
+    public boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    public boolean contains(Version version) {
+        for (Interval interval : intervals) {
+            if (interval.contains(version)) return true;
+        }
+        return false;
+    }
+
+    public VersionRangeSet union(VersionRangeSet other) {
+        if (isEmpty()) return other;
+        if (other.isEmpty()) return this;
+
+        List<Interval> all = new ArrayList<>(intervals.size() + other.intervals.size());
+        all.addAll(intervals);
+        all.addAll(other.intervals);
+        all.sort(VersionRangeSet::compareLow);
+
+        List<Interval> merged = new ArrayList<>();
+        Interval current = all.get(0);
+        for (int i = 1; i < all.size(); i++) {
+            Interval next = all.get(i);
+            if (current.overlapsOrTouches(next)) {
+                if (compareHigh(next, current) > 0) {
+                    current = new Interval(current.low, current.lowInclusive, next.high, next.highInclusive);
+                }
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return new VersionRangeSet(List.copyOf(merged));
+    }
+
+    public VersionRangeSet intersect(VersionRangeSet other) {
+        List<Interval> result = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < intervals.size() && j < other.intervals.size()) {
+            Interval a = intervals.get(i);
+            Interval b = other.intervals.get(j);
+
+            Interval low = compareLow(a, b) >= 0 ? a : b;
+            Interval high = compareHigh(a, b) <= 0 ? a : b;
+            Interval overlap = new Interval(low.low, low.lowInclusive, high.high, high.highInclusive);
+            if (!overlap.isEmpty()) result.add(overlap);
+
+            if (high == a) i++;
+            else j++;
+        }
+        return result.isEmpty() ? EMPTY : new VersionRangeSet(List.copyOf(result));
+    }
+
+    /**
+     * Returns the source indices of every version in {@code index} that lies in this set, in
+     * ascending order.
+     */
+    public int[] match(VersionIndex index) {
+        int[] matched = new int[index.sourceSize()];
+        int count = 0;
+
+        if (hasKeyedBounds()) {
+            for (Interval interval : intervals) {
+                int from = interval.low == null ? 0 : interval.lowInclusive
+                        ? index.lowerBound(interval.low.getKey())
+                        : index.upperBound(interval.low.getKey());
+                int to = interval.high == null ? index.size() : interval.highInclusive
+                        ? index.upperBound(interval.high.getKey())
+                        : index.lowerBound(interval.high.getKey());
+                for (int position = from; position < to; position++) {
+                    matched[count++] = index.sourceIndex(position);
+                }
+            }
+            for (int sourceIndex : index.unkeyed()) {
+                if (contains(index.source(sourceIndex))) matched[count++] = sourceIndex;
+            }
+        } else {
+            for (int sourceIndex = 0; sourceIndex < index.sourceSize(); sourceIndex++) {
+                if (contains(index.source(sourceIndex))) matched[count++] = sourceIndex;
+            }
+        }
+
+        int[] result = Arrays.copyOf(matched, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private boolean hasKeyedBounds() {
+        for (Interval interval : intervals) {
+            if (interval.low != null && interval.low.getKey() == Version.NO_KEY) return false;
+            if (interval.high != null && interval.high.getKey() == Version.NO_KEY) return false;
+        }
+        return true;
+    }
+
+    // Unbounded sorts first; at equal versions an inclusive bound starts earlier.
+    private static int compareLow(Interval a, Interval b) {
+        if (a.low == null || b.low == null) return a.low == null ? (b.low == null ? 0 : -1) : 1;
+        int cmp = a.low.compareTo(b.low);
+        if (cmp != 0) return cmp;
+        return a.lowInclusive == b.lowInclusive ? 0 : a.lowInclusive ? -1 : 1;
+    }
+
+    // Unbounded sorts last; at equal versions an inclusive bound ends later.
+    private static int compareHigh(Interval a, Interval b) {
+        if (a.high == null || b.high == null) return a.high == null ? (b.high == null ? 0 : 1) : -1;
+        int cmp = a.high.compareTo(b.high);
+        if (cmp != 0) return cmp;
+        return a.highInclusive == b.highInclusive ? 0 : a.highInclusive ? 1 : -1;
+    }
+
+    /**
+     * One interval of the set. A {@code null} bound is unbounded on that side.
+     */
+    public record Interval(Version low, boolean lowInclusive, Version high, boolean highInclusive) {
+        public boolean contains(Version version) {
+            if (low != null) {
+                int cmp = version.compareTo(low);
+                if (cmp < 0 || (cmp == 0 && !lowInclusive)) return false;
+            }
+            if (high != null) {
+                int cmp = version.compareTo(high);
+                return cmp < 0 || (cmp == 0 && highInclusive);
+            }
+            return true;
+        }
+
+        boolean isEmpty() {
+            if (low == null || high == null) return false;
+            int cmp = low.compareTo(high);
+            return cmp > 0 || (cmp == 0 && !(lowInclusive && highInclusive));
+        }
+
+        // Assumes this interval starts no later than next.
+        boolean overlapsOrTouches(Interval next) {
+            if (high == null || next.low == null) return true;
+            int cmp = next.low.compareTo(high);
+            return cmp < 0 || (cmp == 0 && (highInclusive || next.lowInclusive));
+        }
+    }
+}
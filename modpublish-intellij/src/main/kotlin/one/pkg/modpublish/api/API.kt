@@ -16,20 +16,34 @@
  */
 package one.pkg.modpublish.api
 
+import com.google.gson.JsonObject
 import com.intellij.openapi.project.Project
 import io.ktor.client.request.*
 import io.ktor.client.statement.*
 import io.ktor.http.*
+import kotlinx.coroutines.delay
+import one.pkg.modpublish.api.NetworkUtil.client
+import one.pkg.modpublish.api.RateGovernor.isRateLimitExhausted
+import one.pkg.modpublish.api.RateGovernor.resetMillis
 import one.pkg.modpublish.data.internal.ModInfo
 import one.pkg.modpublish.data.internal.PublishData
 import one.pkg.modpublish.data.result.PublishResult
+import one.pkg.modpublish.util.io.JsonParser.fromJson
 import one.pkg.modpublish.util.resources.Lang
 import one.pkg.modpublish.util.resources.Lang.translate
+import java.io.IOException
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
 import java.util.*
+import java.util.concurrent.ThreadLocalRandom
+import kotlin.coroutines.cancellation.CancellationException
 
 abstract class API {
     abstract val id: String
 
+    /** Endpoints connected to ahead of time so the TLS handshake is done before publishing starts. */
+    open val warmUpUrls: List<String> = emptyList()
+
     internal fun HttpRequestBuilder.json() {
         header(HttpHeaders.Accept, "application/json")
         contentType(ContentType.Application.Json)
@@ -65,10 +79,121 @@ abstract class API {
         }
     }
 
+    /**
+     * Runs an idempotent request, retrying it while the server is throttling or briefly unavailable.
+     *
+     * The wait honours `Retry-After` and `X-RateLimit-Reset` when present, and otherwise uses
+     * exponential backoff with full jitter. Requests that would have to wait longer than
+     * [MAX_RETRY_DELAY] are not retried and the last response is returned as is, and a
+     * [RateGovernor.RateLimitedException] is rethrown straight away.
+     */
+    internal suspend fun retrying(request: suspend () -> HttpResponse): HttpResponse {
+        var attempt = 0
+        while (true) {
+            val resp = try {
+                request()
+            } catch (e: IOException) {
+                if (e is RateGovernor.RateLimitedException || ++attempt >= MAX_ATTEMPTS) throw e
+                delay(backoff(attempt))
+                continue
+            }
+
+            if (!resp.isRetryable() || ++attempt >= MAX_ATTEMPTS) return resp
+            val wait = resp.serverDelay() ?: backoff(attempt)
+            if (wait > MAX_RETRY_DELAY) return resp
+            delay(wait)
+        }
+    }
+
+    private fun HttpResponse.isRetryable(): Boolean = when (status.value) {
+        429, 502, 503, 504 -> true
+        // GitHub reports primary and secondary rate limits as 403
+        403 -> headers[HttpHeaders.RetryAfter] != null || headers.isRateLimitExhausted()
+        else -> false
+    }
+
+    private fun HttpResponse.serverDelay(): Long? {
+        headers[HttpHeaders.RetryAfter]?.let { value ->
+            value.trim().toLongOrNull()?.let { return it * 1000 }
+            return runCatching {
+                ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() -
+                        System.currentTimeMillis()
+            }.getOrNull()?.coerceAtLeast(0)
+        }
+        return if (headers.isRateLimitExhausted()) headers.resetMillis() else null
+    }
+
+    private fun backoff(attempt: Int): Long =
+        ThreadLocalRandom.current().nextLong(BASE_RETRY_DELAY shl (attempt - 1).coerceAtMost(10)) + 1
+
+    /**
+     * Looks [modid] up through [ModInfoCache]. Fresh entries are returned directly, stale ones are
+     * revalidated with `If-None-Match`, and a stale entry is still preferred over a network error.
+     */
+    internal suspend fun cachedModInfo(
+        modid: String,
+        url: String,
+        request: HttpRequestBuilder.() -> Unit,
+        parse: (JsonObject) -> ModInfo
+    ): ModInfo {
+        val cached = ModInfoCache.get(this, modid)
+        if (cached != null && cached.fresh) return cached.info
+
+        return runCatching {
+            val resp = retrying {
+                client.get(url) {
+                    request()
+                    cached?.etag?.let { header(HttpHeaders.IfNoneMatch, it) }
+                }
+            }
+            if (resp.status == HttpStatusCode.NotModified) ModInfoCache.revalidated(this, modid)?.let { return it }
+            resp.statusString()?.let { return ModInfo.of(it) }
+            parse(resp.bodyAsText().fromJson()).also { ModInfoCache.put(this, modid, it, resp.headers[HttpHeaders.ETag]) }
+        }.getOrElse {
+            // A cancelled lookup must not turn into a failed ModInfo
+            if (it is CancellationException) throw it
+            cached?.info ?: ModInfo.of(it.message)
+        }
+    }
+
     abstract suspend fun createVersion(data: PublishData, project: Project): PublishResult
 
     abstract suspend fun getModInfo(modid: String, project: Project): ModInfo
 
+    /**
+     * Resolves several mods at once. Fresh cache entries are answered locally and the rest are
+     * fetched together through [fetchModInfos]; ids that could not be resolved are left out.
+     */
+    suspend fun getModInfos(modids: Collection<String>, project: Project): Map<String, ModInfo> {
+        val result = LinkedHashMap<String, ModInfo>()
+        val missing = modids.distinct().filter { id ->
+            val cached = ModInfoCache.get(this, id)?.takeIf { it.fresh } ?: return@filter true
+            result[id] = cached.info
+            false
+        }
+        if (missing.isNotEmpty()) {
+            // Fallback lookups cache each id as well, so the file is only written at the end
+            val fetched = ModInfoCache.batch {
+                fetchModInfos(missing, project).also { ModInfoCache.putAll(this, it) }
+            }
+            result.putAll(fetched)
+        }
+        return result
+    }
+
+    /**
+     * Fetches uncached mods for [getModInfos]. Platforms with a bulk endpoint override this to
+     * answer in a single request.
+     */
+    protected open suspend fun fetchModInfos(modids: List<String>, project: Project): Map<String, ModInfo> =
+        modids.associateWith { getModInfo(it, project) }.filterValues { it.failed == null }
+
     open suspend fun patchDescription(modid: String, body: String, project: Project): PublishResult =
         PublishResult.create(this, "Unsupported operation: patchDescription")
+
+    companion object {
+        private const val MAX_ATTEMPTS = 4
+        private const val BASE_RETRY_DELAY = 500L
+        private const val MAX_RETRY_DELAY = 60_000L
+    }
 }
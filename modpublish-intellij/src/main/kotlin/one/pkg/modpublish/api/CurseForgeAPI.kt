@@ -22,7 +22,11 @@ import io.ktor.client.request.*
 import io.ktor.client.request.forms.*
 import io.ktor.client.statement.*
 import io.ktor.http.*
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
 import one.pkg.modpublish.api.NetworkUtil.client
+import one.pkg.modpublish.api.UploadContent.appendJar
 import one.pkg.modpublish.data.internal.ModInfo
 import one.pkg.modpublish.data.internal.PublishData
 import one.pkg.modpublish.data.network.curseforge.CurseForgeData
@@ -39,6 +43,7 @@ import java.io.File
 
 class CurseForgeAPI : API() {
     override val id: String = "CurseForge"
+    override val warmUpUrls: List<String> = listOf(A_URL, B_URL)
 
     private suspend fun create(data: PublishData, project: Project, file: File, bResult: BackResult?): Result {
         val modid = PID.CurseForgeModID.get(project)
@@ -48,10 +53,7 @@ class CurseForgeAPI : API() {
                 setBody(
                     MultiPartFormDataContent(
                     formData {
-                        append("file", file.readBytes(), Headers.build {
-                            append(HttpHeaders.ContentType, "application/java-archive")
-                            append(HttpHeaders.ContentDisposition, "filename=\"${file.name}\"")
-                        })
+                        appendJar("file", file)
                         append("metadata", createJsonBody(data, bResult))
                     }
                 ))
@@ -65,26 +67,66 @@ class CurseForgeAPI : API() {
     }
 
     override suspend fun createVersion(data: PublishData, project: Project): PublishResult {
-        var bResult: BackResult? = null
-        data.files.forEachIndexed { index, file ->
-            when (val result = create(data, project, file, bResult)) {
-                is BackResult -> if (index == 0) bResult = result
-                is PublishResult -> if (result.isFailure) return result
-            }
+        val primary = data.files.firstOrNull() ?: return PublishResult.EMPTY
+        val checkpoint = UploadCheckpoint.of(this, PID.CurseForgeModID.get(project), data.versionNumber)
+
+        val bResult = checkpoint.get(primary)?.toIntOrNull()?.let {
+            BackResult.result(CurseForgePublishResult.success(it))
+        } ?: when (val result = create(data, project, primary, null)) {
+            is BackResult -> result.also { checkpoint.complete(primary, it.asCurseForgePublishResult().idAsString) }
+            is PublishResult -> if (result.isFailure) return result else null
+            else -> null
+        }
+
+        // Child files only need the parent file id, so they can go up together once it is known.
+        val results = coroutineScope {
+            data.files.drop(1).filter { checkpoint.get(it) == null }.map { file ->
+                async {
+                    HostLimiter.withPermit(A_URL) {
+                        create(data, project, file, bResult).also {
+                            if (it is BackResult) checkpoint.complete(file, it.asCurseForgePublishResult().idAsString)
+                        }
+                    }
+                }
+            }.awaitAll()
         }
-        return PublishResult.EMPTY
+        val failure = results.firstOrNull { it is PublishResult && it.isFailure } as? PublishResult
+        if (failure == null) checkpoint.clear()
+        return failure ?: PublishResult.EMPTY
     }
 
-    override suspend fun getModInfo(modid: String, project: Project): ModInfo {
-        return runCatching {
-            val resp = client.get(B_URL + "mods/$modid") {
-                header("x-api-key", PID.CurseForgeStudioToken.getProtect(project).data)
-                json()
-            }
-            resp.statusString()?.let { return ModInfo.of(it) }
-            val dataObj = resp.bodyAsText().fromJson().getAsJsonObject("data")
+    override suspend fun getModInfo(modid: String, project: Project): ModInfo =
+        cachedModInfo(modid, B_URL + "mods/$modid", {
+            header("x-api-key", PID.CurseForgeStudioToken.getProtect(project).data)
+            json()
+        }) { obj ->
+            val dataObj = obj.getAsJsonObject("data")
             ModInfo.of(modid, dataObj.get("name").asString, dataObj.get("slug").asString)
-        }.getOrElse { ModInfo.of(it.message) }
+        }
+
+    override suspend fun fetchModInfos(modids: List<String>, project: Project): Map<String, ModInfo> {
+        val (numeric, other) = modids.partition { it.toIntOrNull() != null }
+        val result = HashMap<String, ModInfo>()
+        if (other.isNotEmpty()) result.putAll(super.fetchModInfos(other, project))
+        if (numeric.isEmpty()) return result
+
+        runCatching {
+            val resp = retrying {
+                client.post(B_URL + "mods") {
+                    header("x-api-key", PID.CurseForgeStudioToken.getProtect(project).data)
+                    json()
+                    setBody(mapOf("modIds" to numeric.map { it.toInt() }).toJson())
+                }
+            }
+            if (resp.status.isSuccess()) {
+                resp.bodyAsText().fromJson().getAsJsonArray("data").forEach { element ->
+                    val obj = element.asJsonObject
+                    val id = obj.get("id").asString
+                    result[id] = ModInfo.of(id, obj.get("name").asString, obj.get("slug").asString)
+                }
+            }
+        }.onFailure { LOG.warn("Failed to resolve CurseForge mods in bulk", it) }
+        return result
     }
 
     override fun createJsonBody(data: PublishData, project: Project): String =
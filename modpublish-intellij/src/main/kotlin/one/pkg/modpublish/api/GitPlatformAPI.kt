@@ -16,15 +16,56 @@
  */
 package one.pkg.modpublish.api
 
+import com.google.gson.JsonObject
 import com.intellij.openapi.project.Project
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import one.pkg.modpublish.data.result.PublishResult
+import java.io.File
+import java.util.concurrent.atomic.AtomicBoolean
 
 abstract class GitPlatformAPI : API() {
     protected abstract suspend fun getDefaultBranch(project: Project): String
     protected abstract suspend fun getLatestCommitHash(branch: String, project: Project): String
 
+    /**
+     * Names of the assets already attached to [release], used to skip files a previous attempt
+     * has already uploaded.
+     */
+    protected abstract fun getExistingAssetNames(release: JsonObject?): Set<String>
+
     protected suspend fun getTargetCommitish(branch: String, project: Project): String = try {
         branch.takeIf { it.isNotBlank() }?.let { getLatestCommitHash(it, project) } ?: getDefaultBranch(project)
     } catch (_: Exception) {
         branch.takeIf { it.isNotBlank() } ?: "main"
     }
+
+    /**
+     * Uploads every file concurrently, bounded by the [HostLimiter] of [url].
+     *
+     * Once an upload fails, files that have not started yet are skipped; uploads already in
+     * flight are allowed to finish. The returned result lists every asset that did not make it.
+     */
+    protected suspend fun uploadAssets(
+        files: List<File>,
+        url: String,
+        upload: suspend (File) -> PublishResult
+    ): PublishResult {
+        val failed = AtomicBoolean(false)
+        val results = coroutineScope {
+            files.map { file ->
+                async {
+                    HostLimiter.withPermit(url) {
+                        if (failed.get()) PublishResult.create(this@GitPlatformAPI, "Skipped")
+                        else upload(file).also { if (it.isFailure) failed.set(true) }
+                    }
+                }
+            }.awaitAll()
+        }
+
+        val failures = files.zip(results).filter { it.second.isFailure }
+        if (failures.isEmpty()) return PublishResult.EMPTY
+        return PublishResult.create(this, failures.joinToString("\n") { (file, result) -> "${file.name}: ${result.result}" })
+    }
 }
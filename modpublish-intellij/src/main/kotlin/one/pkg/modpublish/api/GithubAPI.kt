@@ -23,6 +23,7 @@ import io.ktor.client.request.*
 import io.ktor.client.statement.*
 import io.ktor.http.*
 import one.pkg.modpublish.api.NetworkUtil.client
+import one.pkg.modpublish.api.UploadContent.toJarContent
 import one.pkg.modpublish.data.internal.ModInfo
 import one.pkg.modpublish.data.internal.PublishData
 import one.pkg.modpublish.data.network.github.GithubData
@@ -38,6 +39,7 @@ import java.io.IOException
 
 class GithubAPI : GitPlatformAPI() {
     override val id: String = "Github"
+    override val warmUpUrls: List<String> = listOf("https://api.github.com/")
 
     override suspend fun createVersion(data: PublishData, project: Project): PublishResult {
         return runCatching {
@@ -53,9 +55,10 @@ class GithubAPI : GitPlatformAPI() {
                     this,
                     "Failed to get upload URL"
                 )
-            data.files.fold(PublishResult.EMPTY) { acc, file ->
-                if (!acc.isSuccess) acc else uploadAsset(file, project, uploadUrl)
-            }
+            val existingAssets = getExistingAssetNames(existingRelease)
+            val pending = data.files.filterNot { existingAssets.contains(it.name) }
+
+            uploadAssets(pending, uploadUrl) { uploadAsset(it, project, uploadUrl) }
         }.getOrElse { PublishResult.create(this, "Failed to create GitHub release: ${it.message}") }
     }
 
@@ -82,8 +85,7 @@ class GithubAPI : GitPlatformAPI() {
         val assetUrl = "$uploadUrl?name=${file.name}"
         val resp = client.post(assetUrl) {
             github(project)
-            header("Content-Type", "application/java-archive")
-            setBody(file.readBytes())
+            setBody(file.toJarContent())
         }
 
         resp.statusString()?.let { return PublishResult.create(this, "Failed to upload asset: $it") }
@@ -92,14 +94,27 @@ class GithubAPI : GitPlatformAPI() {
 
     private suspend fun checkExistingRelease(tagName: String, project: Project): JsonObject? = runCatching {
         val url = "$RELEASES_URL/tags/$tagName".replace("{path}", PID.GithubRepo.get(project))
-        val resp = client.get(url) { github(project) }
+        val resp = retrying { client.get(url) { github(project) } }
         if (resp.status.isSuccess()) resp.bodyAsText().fromJson() else null
     }.getOrNull()
 
+    override fun getExistingAssetNames(release: JsonObject?): Set<String> {
+        if (release == null) return emptySet()
+
+        return runCatching {
+            val assets = release.getAsJsonArray("assets") ?: return emptySet()
+            if (assets.isEmpty) return emptySet()
+
+            assets.mapNotNullTo(HashSet(assets.size())) { element ->
+                element.asJsonObject.get("name")?.asString
+            }
+        }.getOrDefault(emptySet())
+    }
+
     @Throws(IOException::class)
     override suspend fun getDefaultBranch(project: Project): String {
         val repo = PID.GithubRepo.get(project)
-        val resp = client.get(REPO_INFO_URL.replace("{path}", repo)) { github(project) }
+        val resp = retrying { client.get(REPO_INFO_URL.replace("{path}", repo)) { github(project) } }
         if (resp.status.isSuccess()) return resp.bodyAsText().fromJson().get("default_branch").asString
         return "main"
     }
@@ -108,7 +123,7 @@ class GithubAPI : GitPlatformAPI() {
     override suspend fun getLatestCommitHash(branch: String, project: Project): String {
         val repo = PID.GithubRepo.get(project)
         val url = BRANCH_COMMIT_URL.replace("{path}", repo).replace("{branch}", branch)
-        val resp = client.get(url) { github(project) }
+        val resp = retrying { client.get(url) { github(project) } }
         if (resp.status.isSuccess()) {
             val commit = resp.bodyAsText().fromJson().getAsJsonObject("commit")
             return commit.get("sha").asString
@@ -23,6 +23,7 @@ import io.ktor.client.request.*
 import io.ktor.client.statement.*
 import io.ktor.http.*
 import one.pkg.modpublish.api.NetworkUtil.client
+import one.pkg.modpublish.api.UploadContent.toOutgoingContent
 import one.pkg.modpublish.data.internal.ModInfo
 import one.pkg.modpublish.data.internal.PublishData
 import one.pkg.modpublish.data.network.gitlab.GitlabData
@@ -40,6 +41,7 @@ import java.io.IOException
 @ApiStatus.Experimental
 class GitlabAPI : GitPlatformAPI() {
     override val id: String = "GitLab"
+    override val warmUpUrls: List<String> = listOf("https://gitlab.com/api/v4/")
 
     override suspend fun createVersion(data: PublishData, project: Project): PublishResult {
         return try {
@@ -55,20 +57,16 @@ class GitlabAPI : GitPlatformAPI() {
             }
 
             val existingAssets = getExistingAssetNames(existingRelease)
-
-            val assetLinks = data.files.mapNotNull { file ->
-                if (existingAssets.contains(file.name)) {
-                    null
-                } else {
-                    uploadAssetToProject(file, project)
-                }
-            }
-
-            if (assetLinks.isNotEmpty()) {
-                linkAssetsToRelease(tagName, assetLinks, project)
-            }
-
-            PublishResult.EMPTY
+            val pending = data.files.filterNot { existingAssets.contains(it.name) }
+
+            // Uploads that were never linked are remembered, so a retry only has to link them.
+            val checkpoint = UploadCheckpoint.of(this, PID.GitlabRepo.get(project), tagName)
+            uploadAssets(pending, UPLOAD_URL) { file ->
+                val url = checkpoint.get(file)
+                    ?: uploadAssetToProject(file, project)?.also { checkpoint.complete(file, it) }
+                url?.let { linkAssetToRelease(tagName, it, project) }
+                    ?: PublishResult.create(this, "Failed to upload asset")
+            }.also { if (it.isSuccess) checkpoint.clear() }
         } catch (e: Exception) {
             PublishResult.create(this, "Failed to create GitLab release: ${e.message}")
         }
@@ -96,8 +94,7 @@ class GitlabAPI : GitPlatformAPI() {
         val url = UPLOAD_URL.replace("{path}", PID.GitlabRepo.get(project))
         val resp = client.post(url) {
             gitlab(project)
-            header("Content-Type", "application/octet-stream")
-            setBody(file.readBytes())
+            setBody(file.toOutgoingContent())
         }
 
         if (resp.status.isSuccess()) {
@@ -106,45 +103,43 @@ class GitlabAPI : GitPlatformAPI() {
         } else null
     }.getOrNull()
 
-    private suspend fun linkAssetsToRelease(
+    private suspend fun linkAssetToRelease(
         tagName: String,
-        assetLinks: List<String>,
+        url: String,
         project: Project
     ): PublishResult = try {
-        assetLinks.forEach { url ->
-            val fileName = url.substringAfterLast('/')
-            val gitlabBaseUrl = PID.GitlabRepo.get(project).let { repo ->
-                "https://gitlab.com/${repo.replace("%2F", "/")}"
-            }
-            val linkBody = JsonObject().apply {
-                addProperty("name", fileName)
-                addProperty("url", "$gitlabBaseUrl$url")
-                addProperty("link_type", "package")
-            }.toString()
-
-            val reqUrl = "$RELEASES_URL/$tagName/assets/links".replace("{path}", PID.GitlabRepo.get(project))
-            val resp = client.post(reqUrl) {
-                gitlab(project)
-                json()
-                setBody(linkBody)
-            }
+        val fileName = url.substringAfterLast('/')
+        val gitlabBaseUrl = PID.GitlabRepo.get(project).let { repo ->
+            "https://gitlab.com/${repo.replace("%2F", "/")}"
+        }
+        val linkBody = JsonObject().apply {
+            addProperty("name", fileName)
+            addProperty("url", "$gitlabBaseUrl$url")
+            addProperty("link_type", "package")
+        }.toString()
+
+        val reqUrl = "$RELEASES_URL/$tagName/assets/links".replace("{path}", PID.GitlabRepo.get(project))
+        val resp = client.post(reqUrl) {
+            gitlab(project)
+            json()
+            setBody(linkBody)
+        }
 
-            resp.statusString()?.let {
-                return PublishResult.create(this, "Failed to link asset: $it")
-            }
+        resp.statusString()?.let {
+            return PublishResult.create(this, "Failed to link asset: $it")
         }
         PublishResult.EMPTY
     } catch (e: IOException) {
-        PublishResult.create(this, "Failed to link assets: ${e.message}")
+        PublishResult.create(this, "Failed to link asset: ${e.message}")
     }
 
     private suspend fun checkExistingRelease(tagName: String, project: Project): JsonObject? = runCatching {
         val url = "$RELEASES_URL/$tagName".replace("{path}", PID.GitlabRepo.get(project))
-        val resp = client.get(url) { gitlab(project) }
+        val resp = retrying { client.get(url) { gitlab(project) } }
         if (resp.status.isSuccess()) resp.bodyAsText().fromJson() else null
     }.getOrNull()
 
-    private fun getExistingAssetNames(release: JsonObject?): Set<String> {
+    override fun getExistingAssetNames(release: JsonObject?): Set<String> {
         if (release == null) return emptySet()
 
         return runCatching {
@@ -184,7 +179,7 @@ class GitlabAPI : GitPlatformAPI() {
     @Throws(IOException::class)
     override suspend fun getDefaultBranch(project: Project): String {
         val url = REPO_INFO_URL.replace("{path}", PID.GitlabRepo.get(project))
-        val resp = client.get(url) { gitlab(project) }
+        val resp = retrying { client.get(url) { gitlab(project) } }
         if (resp.status.isSuccess()) return resp.bodyAsText().fromJson().get("default_branch").asString
         return "main"
     }
@@ -192,7 +187,7 @@ class GitlabAPI : GitPlatformAPI() {
     @Throws(IOException::class)
     override suspend fun getLatestCommitHash(branch: String, project: Project): String {
         val url = BRANCH_COMMIT_URL.replace("{path}", PID.GitlabRepo.get(project)).replace("{branch}", branch)
-        val resp = client.get(url) { gitlab(project) }
+        val resp = retrying { client.get(url) { gitlab(project) } }
         if (resp.status.isSuccess()) {
             val commit = resp.bodyAsText().fromJson().getAsJsonObject("commit")
             return commit.get("id").asString
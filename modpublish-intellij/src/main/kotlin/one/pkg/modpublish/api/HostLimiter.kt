@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.api
+
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import one.pkg.modpublish.settings.ModPublishSettings
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Bounds the number of concurrent uploads sent to a single host.
+ *
+ * The permit count comes from [ModPublishSettings.State.networkMaxUploadsPerHost] and is shared
+ * by every publisher, so two targets living on the same host never exceed it together.
+ */
+object HostLimiter {
+    private val limiters = ConcurrentHashMap<String, Pair<Int, Semaphore>>()
+
+    private fun permits(): Int =
+        requireNotNull(ModPublishSettings.getInstance().state).networkMaxUploadsPerHost.coerceAtLeast(1)
+
+    private fun semaphore(host: String): Semaphore {
+        val permits = permits()
+        return limiters.compute(host) { _, current ->
+            current?.takeIf { it.first == permits } ?: (permits to Semaphore(permits))
+        }!!.second
+    }
+
+    suspend fun <T> withPermit(url: String, block: suspend () -> T): T =
+        semaphore(url.substringAfter("://").substringBefore('/')).withPermit { block() }
+}
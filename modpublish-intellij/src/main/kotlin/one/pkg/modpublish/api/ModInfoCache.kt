@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.api
+
+import com.google.gson.reflect.TypeToken
+import com.intellij.openapi.diagnostic.Logger
+import one.pkg.modpublish.data.internal.ModInfo
+import one.pkg.modpublish.util.io.FileAPI.getUserDataFile
+import one.pkg.modpublish.util.io.JsonParser.fromJson
+import one.pkg.modpublish.util.io.JsonParser.toJson
+import java.lang.reflect.Type
+import java.nio.charset.StandardCharsets
+
+/**
+ * Successful [API.getModInfo] lookups, kept in `~/.modpublish/modinfo.cache.json` and shared by
+ * every project.
+ *
+ * Entries younger than [TTL] are returned without touching the network. Older entries are
+ * revalidated with their `ETag`, so an unchanged project costs a `304` and no body. Entries
+ * that have not been confirmed for [MAX_AGE] are dropped.
+ */
+object ModInfoCache {
+    private val LOG = Logger.getInstance(ModInfoCache::class.java)
+    private val type: Type = object : TypeToken<MutableMap<String, Entry>>() {}.type
+    private var cached: MutableMap<String, Entry>? = null
+    private var batches = 0
+    private var dirty = false
+
+    private const val TTL = 24 * 60 * 60 * 1000L
+    private const val MAX_AGE = 30 * TTL
+
+    private data class Entry(
+        val modid: String? = null, val slug: String? = null, val name: String? = null,
+        val etag: String? = null, val checked: Long = 0
+    ) {
+        fun toModInfo(): ModInfo = ModInfo.of(modid, slug, name)
+    }
+
+    class Cached internal constructor(val info: ModInfo, val etag: String?, val fresh: Boolean)
+
+    private fun key(api: API, modid: String) = "${api.id}:$modid"
+
+    @Synchronized
+    fun get(api: API, modid: String): Cached? {
+        val entry = entries()[key(api, modid)] ?: return null
+        return Cached(entry.toModInfo(), entry.etag, System.currentTimeMillis() - entry.checked < TTL)
+    }
+
+    @Synchronized
+    fun put(api: API, modid: String, info: ModInfo, etag: String?) {
+        if (info.failed != null) return
+        entries()[key(api, modid)] = Entry(info.modid, info.slug, info.name, etag, System.currentTimeMillis())
+        save()
+    }
+
+    /**
+     * Stores several lookups with a single write. Bulk endpoints send no per-mod `ETag`, so an
+     * existing one is kept while the stored info is unchanged.
+     */
+    @Synchronized
+    fun putAll(api: API, infos: Map<String, ModInfo>) {
+        val entries = entries()
+        val now = System.currentTimeMillis()
+        var changed = false
+        infos.forEach { (modid, info) ->
+            if (info.failed != null) return@forEach
+            val key = key(api, modid)
+            val etag = entries[key]?.takeIf { it.modid == info.modid && it.slug == info.slug && it.name == info.name }?.etag
+            entries[key] = Entry(info.modid, info.slug, info.name, etag, now)
+            changed = true
+        }
+        if (changed) save()
+    }
+
+    /**
+     * Marks a cached entry as confirmed by the server (`304 Not Modified`) and returns it.
+     */
+    @Synchronized
+    fun revalidated(api: API, modid: String): ModInfo? {
+        val key = key(api, modid)
+        val entry = entries()[key] ?: return null
+        entries()[key] = entry.copy(checked = System.currentTimeMillis())
+        save()
+        return entry.toModInfo()
+    }
+
+    /**
+     * Runs [block] with saves deferred, then writes the file once if anything changed. Used by
+     * bulk lookups, whose per-id fallback would otherwise save after every mod.
+     */
+    suspend fun <T> batch(block: suspend () -> T): T {
+        synchronized(this) { batches++ }
+        try {
+            return block()
+        } finally {
+            synchronized(this) {
+                if (--batches == 0 && dirty) save()
+            }
+        }
+    }
+
+    private fun entries(): MutableMap<String, Entry> {
+        cached?.let { return it }
+        val file = "modinfo.cache.json".getUserDataFile()
+        val loaded = runCatching {
+            if (file.exists()) file.readText(StandardCharsets.UTF_8).fromJson<MutableMap<String, Entry>>(type)
+            else null
+        }.onFailure { LOG.warn("Failed to read mod info cache, starting over", it) }.getOrNull()
+
+        val now = System.currentTimeMillis()
+        return (loaded ?: HashMap()).also { map ->
+            map.values.removeIf { now - it.checked > MAX_AGE }
+            cached = map
+        }
+    }
+
+    /** Must be called while holding the cache lock. */
+    private fun save() {
+        if (batches > 0) {
+            dirty = true
+            return
+        }
+        dirty = false
+        runCatching {
+            "modinfo.cache.json".getUserDataFile().bufferedWriter(StandardCharsets.UTF_8).use { writer ->
+                entries().toJson(writer)
+            }
+        }.onFailure { LOG.warn("Failed to save mod info cache", it) }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package one.pkg.modpublish.api
 
+import com.google.gson.JsonArray
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.project.Project
 import io.ktor.client.request.*
@@ -23,6 +24,7 @@ import io.ktor.client.request.forms.*
 import io.ktor.client.statement.*
 import io.ktor.http.*
 import one.pkg.modpublish.api.NetworkUtil.client
+import one.pkg.modpublish.api.UploadContent.appendJar
 import one.pkg.modpublish.data.internal.ModInfo
 import one.pkg.modpublish.data.internal.PublishData
 import one.pkg.modpublish.data.internal.RequestStatus
@@ -36,6 +38,7 @@ import one.pkg.modpublish.util.io.JsonParser.toJson
 
 class ModrinthAPI : API() {
     override val id: String = "Modrinth"
+    override val warmUpUrls: List<String> = listOf(URL)
 
     private fun HttpRequestBuilder.modrinth(project: Project) {
         header("Authorization", PID.ModrinthToken.getProtect(project).data)
@@ -51,10 +54,7 @@ class ModrinthAPI : API() {
                         append("data", createJsonBody(data, project))
                         data.files.forEachIndexed { i, file ->
                             val key = if (i == 0) "${file.name}-primary" else "${file.name}-${i - 1}"
-                            append(key, file.readBytes(), Headers.build {
-                                append(HttpHeaders.ContentType, "application/java-archive")
-                                append(HttpHeaders.ContentDisposition, "filename=\"${file.name}\"")
-                            })
+                            appendJar(key, file)
                         }
                     }
                 ))
@@ -88,17 +88,35 @@ class ModrinthAPI : API() {
         }
     }
 
-    override suspend fun getModInfo(modid: String, project: Project): ModInfo {
-        return runCatching {
-            val resp = client.get(URL + "project/$modid") {
+    override suspend fun getModInfo(modid: String, project: Project): ModInfo =
+        cachedModInfo(modid, URL + "project/$modid", {
+            modrinth(project)
+            json()
+        }) { obj -> ModInfo.of(modid, obj.get("title").asString, obj.get("slug").asString) }
+
+    override suspend fun fetchModInfos(modids: List<String>, project: Project): Map<String, ModInfo> = runCatching {
+        val resp = retrying {
+            client.get(URL + "projects") {
                 modrinth(project)
                 json()
+                parameter("ids", modids.toJson())
             }
-            resp.statusString()?.let { return ModInfo.of(it) }
-            val obj = resp.bodyAsText().fromJson()
-            ModInfo.of(modid, obj.get("title").asString, obj.get("slug").asString)
-        }.getOrElse { ModInfo.of(it.message) }
-    }
+        }
+        if (!resp.status.isSuccess()) return emptyMap()
+
+        // Dependencies may be saved by id or by slug, so match on either
+        val requested = modids.toSet()
+        val result = HashMap<String, ModInfo>()
+        resp.bodyAsText().fromJson(JsonArray::class.java).forEach { element ->
+            val obj = element.asJsonObject
+            val title = obj.get("title").asString
+            val slug = obj.get("slug").asString
+            listOf(obj.get("id").asString, slug).filter { it in requested }.forEach {
+                result[it] = ModInfo.of(it, title, slug)
+            }
+        }
+        result
+    }.getOrDefault(emptyMap())
 
     override suspend fun patchDescription(
         modid: String,
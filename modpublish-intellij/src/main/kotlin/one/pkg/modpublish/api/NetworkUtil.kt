@@ -20,22 +20,32 @@ import io.ktor.client.*
 import io.ktor.client.plugins.*
 import io.ktor.client.engine.*
 import io.ktor.client.engine.java.Java
+import io.ktor.client.request.head
 import io.ktor.client.request.header
 import io.ktor.http.HttpHeaders
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
 import one.pkg.modpublish.settings.ModPublishSettings
 import one.tranic.t.proxy.ProxyConfigReader
 import java.net.InetSocketAddress
 import java.net.Proxy
+import java.net.http.HttpClient.Version
 
 object NetworkUtil {
     val client: HttpClient
 
+    private val warmUpScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
     init {
         val state = requireNotNull(ModPublishSettings.getInstance().state)
         val proxy = getProxy(state)
 
         client = HttpClient(Java) {
             engine {
+                protocolVersion = if (state.networkPreferHttp2) Version.HTTP_2 else Version.HTTP_1_1
+
                 if (!state.networkEnableSSLCheck) {
                     config {
                         sslContext(SSLSocketClient.sslContext)
@@ -65,6 +75,8 @@ object NetworkUtil {
                 }
             }
 
+            install(RateGovernor.Plugin)
+
             install(HttpTimeout) {
                 requestTimeoutMillis = state.networkReadTimeout.toLong() * 1000
                 connectTimeoutMillis = state.networkConnectTimeout.toLong() * 1000
@@ -76,6 +88,17 @@ object NetworkUtil {
         }
     }
 
+    /**
+     * Opens connections to the given endpoints in the background and discards the responses.
+     * These requests bypass [RateGovernor] so opening the dialog does not use up tokens, though
+     * their rate-limit headers are still learned.
+     */
+    fun warmUp(urls: Collection<String>) {
+        urls.distinct().forEach { url ->
+            warmUpScope.launch { runCatching { client.head(url) { attributes.put(RateGovernor.Bypass, Unit) } } }
+        }
+    }
+
     private fun isValidIpAddress(ip: String): Boolean = runCatching {
         ip.split('.').let { parts ->
             if (parts.size == 4) return parts.all { it.toInt() in 0..255 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.api
+
+import io.ktor.client.plugins.api.*
+import io.ktor.http.*
+import io.ktor.util.*
+import kotlinx.coroutines.delay
+import java.io.IOException
+import java.time.Instant
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.math.abs
+
+/**
+ * Client-side token bucket per host, shared by every request sent through [NetworkUtil.client].
+ *
+ * Buckets learn their size and refill time from the `X-RateLimit-*` (Modrinth, GitHub) or
+ * `RateLimit-*` (GitLab) response headers. Until a host has reported a limit its requests are
+ * not delayed. Once the bucket is empty, requests queue for the next window and are released
+ * one slot apart after the reset instead of tripping a 429, and when it runs low the remaining
+ * tokens are spread over the window. A request that would have to wait longer than [MAX_WAIT]
+ * fails with [RateLimitedException] instead.
+ */
+object RateGovernor {
+    private const val MAX_WAIT = 60_000L
+    private const val EPOCH_THRESHOLD = 1_000_000_000L
+    private val TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault())
+
+    private val buckets = ConcurrentHashMap<String, Bucket>()
+
+    /** Marks a request that should not wait for or take a token, such as a connection warm-up. */
+    val Bypass = AttributeKey<Unit>("RateGovernorBypass")
+
+    val Plugin = createClientPlugin("RateGovernor") {
+        onRequest { request, _ -> if (!request.attributes.contains(Bypass)) acquire(request.url.host) }
+        onResponse { response -> learn(response.call.request.url.host, response.headers) }
+    }
+
+    /**
+     * Thrown before sending a request whose host will not accept it until [resetAt].
+     */
+    class RateLimitedException(val host: String, val resetAt: Long) :
+        IOException("Rate limited by $host until ${TIME_FORMAT.format(Instant.ofEpochMilli(resetAt))}")
+
+    private class Bucket {
+        var limit = 0
+        var tokens = 0
+        var resetAt = 0L
+        var nextSlot = 0L
+        /** Longest window seen, used to space out requests queued for the next one. */
+        var window = 0L
+        /** Requests already scheduled against the next window. */
+        var reserved = 0
+    }
+
+    private suspend fun acquire(host: String) {
+        val bucket = buckets[host] ?: return
+        val wait = synchronized(bucket) {
+            val now = System.currentTimeMillis()
+            if (bucket.limit <= 0) return
+            if (now >= bucket.resetAt) {
+                // Start the next window locally; the next response corrects it from its headers
+                bucket.tokens = (bucket.limit - bucket.reserved).coerceAtLeast(0)
+                bucket.reserved = 0
+                bucket.resetAt = now + bucket.window
+                bucket.nextSlot = maxOf(now, bucket.nextSlot)
+            }
+
+            val start = if (bucket.tokens > 0) maxOf(now, bucket.nextSlot) else maxOf(bucket.resetAt, bucket.nextSlot)
+            if (start - now > MAX_WAIT) throw RateLimitedException(host, start)
+
+            if (bucket.tokens > 0) {
+                bucket.tokens--
+                // Keep the last tenth of the window's budget evenly spaced out
+                bucket.nextSlot = if (bucket.tokens * 10 < bucket.limit && bucket.tokens > 0) {
+                    start + (bucket.resetAt - start).coerceAtLeast(0) / (bucket.tokens + 1)
+                } else start
+            } else {
+                // Queued for the next window: one slot each, so they do not all fire at the reset
+                bucket.reserved++
+                bucket.nextSlot = start + bucket.window / bucket.limit
+            }
+            start - now
+        }
+        if (wait > 0) delay(wait)
+    }
+
+    private fun learn(host: String, headers: Headers) {
+        val remaining = headers.rateLimit("Remaining") ?: return
+        val limit = headers.rateLimit("Limit") ?: maxOf(remaining, buckets[host]?.limit ?: 0)
+        val reset = headers.resetMillis() ?: return
+
+        val bucket = buckets.computeIfAbsent(host) { Bucket() }
+        synchronized(bucket) {
+            val resetAt = System.currentTimeMillis() + reset
+            // Within a window requests still in flight already took a token, so only ever lower the count
+            if (abs(resetAt - bucket.resetAt) > 1000) {
+                bucket.tokens = (remaining.toInt() - bucket.reserved).coerceAtLeast(0)
+                bucket.reserved = 0
+            } else {
+                bucket.tokens = minOf(bucket.tokens, remaining.toInt())
+            }
+            bucket.limit = limit.toInt()
+            bucket.resetAt = resetAt
+            bucket.window = maxOf(bucket.window, reset)
+        }
+    }
+
+    private fun Headers.rateLimit(name: String): Long? =
+        (get("X-RateLimit-$name") ?: get("RateLimit-$name"))?.trim()?.toLongOrNull()
+
+    internal fun Headers.isRateLimitExhausted(): Boolean = rateLimit("Remaining") == 0L
+
+    /**
+     * Milliseconds until the rate-limit window resets. GitHub and GitLab send an epoch second,
+     * Modrinth the seconds left in the window.
+     */
+    internal fun Headers.resetMillis(): Long? {
+        val reset = rateLimit("Reset") ?: return null
+        val millis = if (reset > EPOCH_THRESHOLD) reset * 1000 - System.currentTimeMillis() else reset * 1000
+        return millis.coerceAtLeast(0)
+    }
+}
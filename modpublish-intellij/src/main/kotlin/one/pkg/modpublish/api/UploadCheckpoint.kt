@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.api
+
+import com.google.gson.reflect.TypeToken
+import com.intellij.openapi.diagnostic.Logger
+import one.pkg.modpublish.util.io.FileAPI.getUserDataFile
+import one.pkg.modpublish.util.io.JsonParser.fromJson
+import one.pkg.modpublish.util.io.JsonParser.toJson
+import java.io.File
+import java.lang.reflect.Type
+import java.nio.charset.StandardCharsets
+
+/**
+ * Persisted upload progress, so that a publish which dies halfway can be retried without
+ * sending the files that already made it again.
+ *
+ * Progress is kept per target (platform, project and version) and per file in
+ * `~/.modpublish/upload.checkpoint.json`. A file entry is only trusted while the file on disk
+ * still has the same size and modification time. None of the platforms accept partial
+ * uploads, so a file is either complete or sent again in full.
+ */
+object UploadCheckpoint {
+    private val LOG = Logger.getInstance(UploadCheckpoint::class.java)
+    private val type: Type = object : TypeToken<MutableMap<String, MutableMap<String, Entry>>>() {}.type
+    private var cached: MutableMap<String, MutableMap<String, Entry>>? = null
+
+    private data class Entry(val size: Long = 0, val modified: Long = 0, val data: String = "")
+
+    class Target internal constructor(private val key: String) {
+        /**
+         * Returns the data stored when [file] finished uploading, or `null` if it still has to be sent.
+         */
+        fun get(file: File): String? = UploadCheckpoint.get(key, file)
+
+        fun complete(file: File, data: String = "") = UploadCheckpoint.put(key, file, data)
+
+        fun clear() = UploadCheckpoint.clear(key)
+    }
+
+    fun of(api: API, vararg scope: String): Target = Target(scope.joinToString(":", "${api.id}:"))
+
+    @Synchronized
+    private fun get(key: String, file: File): String? =
+        entries()[key]?.get(file.name)
+            ?.takeIf { it.size == file.length() && it.modified == file.lastModified() }
+            ?.data
+
+    @Synchronized
+    private fun put(key: String, file: File, data: String) {
+        entries().getOrPut(key) { HashMap() }[file.name] = Entry(file.length(), file.lastModified(), data)
+        save()
+    }
+
+    @Synchronized
+    private fun clear(key: String) {
+        if (entries().remove(key) != null) save()
+    }
+
+    private fun entries(): MutableMap<String, MutableMap<String, Entry>> {
+        cached?.let { return it }
+        val file = "upload.checkpoint.json".getUserDataFile()
+        val loaded = runCatching {
+            if (file.exists()) file.readText(StandardCharsets.UTF_8).fromJson<MutableMap<String, MutableMap<String, Entry>>>(type)
+            else null
+        }.onFailure { LOG.warn("Failed to read upload checkpoints, starting over", it) }.getOrNull()
+        return (loaded ?: HashMap()).also { cached = it }
+    }
+
+    private fun save() {
+        runCatching {
+            "upload.checkpoint.json".getUserDataFile().bufferedWriter(StandardCharsets.UTF_8).use { writer ->
+                entries().toJson(writer)
+            }
+        }.onFailure { LOG.warn("Failed to save upload checkpoints", it) }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.api
+
+import io.ktor.client.request.forms.*
+import io.ktor.http.*
+import io.ktor.http.content.*
+import io.ktor.util.cio.*
+import io.ktor.utils.io.*
+import java.io.File
+
+/**
+ * Streaming request bodies shared by every publisher.
+ *
+ * Artifacts are copied from disk in chunks by Ktor's file reader instead of being read into a
+ * single [ByteArray], so heap usage stays flat no matter how large the uploaded jar is.
+ */
+object UploadContent {
+    private val JAR_TYPE = ContentType("application", "java-archive")
+
+    /**
+     * Opens a new channel over the file. Every call starts from the first byte, which lets
+     * the HTTP engine replay the body when it has to. The reader is tied to the channel, so
+     * when the engine cancels the body the reader stops and the file is closed.
+     */
+    fun File.openChannel(): ByteReadChannel = readChannel()
+
+    fun File.toChannelProvider(): ChannelProvider = ChannelProvider(length()) { openChannel() }
+
+    fun File.toOutgoingContent(contentType: ContentType = ContentType.Application.OctetStream): OutgoingContent =
+        FileContent(this, contentType)
+
+    fun FormBuilder.appendJar(key: String, file: File) =
+        append(key, file.toChannelProvider(), Headers.build {
+            append(HttpHeaders.ContentType, JAR_TYPE.toString())
+            append(HttpHeaders.ContentDisposition, "filename=\"${file.name}\"")
+        })
+
+    fun File.toJarContent(): OutgoingContent = toOutgoingContent(JAR_TYPE)
+
+    private class FileContent(
+        private val file: File,
+        override val contentType: ContentType
+    ) : OutgoingContent.ReadChannelContent() {
+        override val contentLength: Long = file.length()
+
+        override fun readFrom(): ByteReadChannel = file.openChannel()
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.data.internal
+
+/**
+ * Everything ModPublish reads from a jar, collected while the archive is open once.
+ *
+ * [types] lists every loader whose metadata file is present, in [PublishType] order, and
+ * never contains [PublishType.JavaAgent]. [modInfo] is read from the first of them and is
+ * `null` for a jar that is only a Java agent.
+ */
+data class JarMetadata(
+    val types: List<PublishType>,
+    val modInfo: LocalModInfo?,
+    val javaAgent: Boolean
+) {
+    /** The type a jar is published as, matching [PublishType.Companion.toModType]. */
+    val modType: PublishType?
+        get() = types.firstOrNull() ?: PublishType.JavaAgent.takeIf { javaAgent }
+
+    companion object {
+        val EMPTY = JarMetadata(emptyList(), null, false)
+    }
+}
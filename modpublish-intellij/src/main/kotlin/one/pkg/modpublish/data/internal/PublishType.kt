@@ -17,84 +17,45 @@
 package one.pkg.modpublish.data.internal
 
 import com.intellij.openapi.vfs.VirtualFile
-import one.pkg.modpublish.util.io.FileAPI.isJavaAgent
-import one.pkg.modpublish.util.io.FileAPI.open
 import one.pkg.modpublish.util.io.FileAPI.toFile
-import one.pkg.modpublish.util.io.FileAPI.toJarFile
+import one.pkg.modpublish.util.metadata.ArchiveEntries
+import one.pkg.modpublish.util.metadata.JarScanner
 import one.pkg.modpublish.util.metadata.ModJsonParser
 import one.pkg.modpublish.util.metadata.ModTomlParser.Companion.toModTomlParser
 import java.io.File
-import java.io.InputStream
 import java.util.*
-import java.util.jar.JarFile
-import java.util.zip.ZipEntry
-import java.util.zip.ZipFile
 
 enum class PublishType(val fileName: String, val displayName: String, val curseForgeVersion: Int) {
     Fabric("fabric.mod.json", "Fabric", 7499) {
-        override fun getMod(file: File): LocalModInfo? {
-            return runCatching {
-                file.toJarFile().use { jar ->
-                    jar?.let { getFabricMod(it) }
-                }
-            }.getOrNull()
-        }
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = getFabricMod(archive)
     },
     Quilt("quilt.mod.json", "Quilt", 9153) {
-        override fun getMod(file: File): LocalModInfo? {
-            return runCatching {
-                file.toJarFile().use { jar ->
-                    jar?.let { getFabricMod(it) }
-                }
-            }.getOrNull()
-        }
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = getFabricMod(archive)
     },
     Forge("META-INF/mods.toml", "Forge", 7498) {
-        override fun getMod(file: File): LocalModInfo? {
-            return runCatching {
-                file.toJarFile().use { jar ->
-                    jar?.let { getForgeMod(it) }
-                }
-            }.getOrNull()
-        }
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = getForgeMod(archive)
     },
     NeoForge("META-INF/neoforge.mods.toml", "NeoForge", 10150) {
-        override fun getMod(file: File): LocalModInfo? {
-            return runCatching {
-                file.toJarFile().use { jar -> jar?.let { getForgeMod(it) } }
-            }.getOrNull()
-        }
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = getForgeMod(archive)
     },
     Rift("riftmod.json", "Rift", 7500) {
-        override fun getMod(file: File): LocalModInfo? {
-            return runCatching {
-                ZipFile(file).use { zip ->
-                    getMCMod(zip) ?: run {
-                        getStream(zip).use { stream ->
-                            stream?.let { ModJsonParser(it) }?.getRiftMod()
-                        }
-                    }
-                }
-            }.getOrNull()
-        }
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = runCatching {
+            getMCMod(archive) ?: archive.open(fileName).use { stream ->
+                stream?.let { ModJsonParser(it) }?.getRiftMod()
+            }
+        }.getOrNull()
     },
     LiteLoader("litemod.json", "LiteLoader", -1) {
-        override fun getMod(file: File): LocalModInfo? {
-            return runCatching {
-                ZipFile(file).use { zip ->
-                    getMCMod(zip) ?: run {
-                        getStream(zip).use { stream ->
-                            stream?.let { ModJsonParser(it) }?.getLiteMod()
-                        }
-                    }
-                }
-            }.getOrNull()
-        }
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = runCatching {
+            getMCMod(archive) ?: archive.open(fileName).use { stream ->
+                stream?.let { ModJsonParser(it) }?.getLiteMod()
+            }
+        }.getOrNull()
     },
     JavaAgent("", "JavaAgent", -1) {
-        override fun getMod(file: File): LocalModInfo? = if (file.isJavaAgent()) {
+        override fun readMod(archive: ArchiveEntries): LocalModInfo? = if (JarScanner.isJavaAgent(archive)) {
             LocalModInfo(
-                name = file.nameWithoutExtension,
+                name = archive.file.nameWithoutExtension,
                 version = "unknown",
                 versionRange = "1.0.0",
                 sideType = SideType.BOTH
@@ -104,40 +65,35 @@ enum class PublishType(val fileName: String, val displayName: String, val curseF
         override fun getID(): String = "java-agent"
     };
 
-    abstract fun getMod(file: File): LocalModInfo?
-
-    fun getMod(file: VirtualFile): LocalModInfo? = getMod(file.toFile())
-
-    fun getEntry(jar: JarFile): ZipEntry? = jar.getEntry(fileName)
-
-    fun getEntry(file: ZipFile): ZipEntry? = file.getEntry(fileName)
+    /**
+     * Reads the mod metadata of this type from an archive that is already open. The archive is
+     * left open, so several lookups can share it.
+     */
+    abstract fun readMod(archive: ArchiveEntries): LocalModInfo?
 
-    fun getStream(jar: JarFile): InputStream? = getEntry(jar)?.let { jar.open(it) }
+    fun getMod(file: File): LocalModInfo? = runCatching {
+        JarScanner.open(file)?.use { readMod(it) }
+    }.getOrNull()
 
-    fun getStream(file: ZipFile): InputStream? = getEntry(file)?.let { file.getInputStream(it) }
+    fun getMod(file: VirtualFile): LocalModInfo? = getMod(file.toFile())
 
     open fun getID(): String = displayName.lowercase(Locale.ENGLISH)
 
-    protected fun getFabricMod(file: JarFile): LocalModInfo? {
+    protected fun getFabricMod(archive: ArchiveEntries): LocalModInfo? {
         return runCatching {
-            file.use { jar ->
-                getStream(jar).use { stream -> stream?.let { ModJsonParser(it) }?.getFabric() }
-            }
+            archive.open(fileName).use { stream -> stream?.let { ModJsonParser(it) }?.getFabric() }
         }.getOrNull()
     }
 
-    protected fun getForgeMod(file: JarFile): LocalModInfo? {
+    protected fun getForgeMod(archive: ArchiveEntries): LocalModInfo? {
         return runCatching {
-            file.use { jar ->
-                getStream(jar).use { stream -> stream?.toModTomlParser()?.get() }
-            }
+            archive.open(fileName).use { stream -> stream?.toModTomlParser()?.get() }
         }.getOrNull()
     }
 
-    protected fun getMCMod(file: ZipFile): LocalModInfo? {
+    protected fun getMCMod(archive: ArchiveEntries): LocalModInfo? {
         return runCatching {
-            file.getEntry("mcmod.info")?.let { file.getInputStream(it) }
-                .use { stream -> stream?.let { ModJsonParser(it) }?.getMcMod() }
+            archive.open("mcmod.info").use { stream -> stream?.let { ModJsonParser(it) }?.getMcMod() }
         }.getOrNull()
     }
 
@@ -146,31 +102,11 @@ enum class PublishType(val fileName: String, val displayName: String, val curseF
     companion object {
         val valuesList = entries
 
-        fun File.toModType(): PublishType? {
-            return runCatching {
-                this.toJarFile()?.use { jar ->
-                    jar.toModType()
-                }
-            }.getOrNull()
-        }
-
-        fun JarFile.toModType(): PublishType? =
-            valuesList.firstOrNull {
-                if (it == JavaAgent && this.isJavaAgent()) return@firstOrNull true
-                it.getEntry(this) != null
-            }
+        fun File.toModType(): PublishType? = JarScanner.scan(this)?.modType
 
         fun String.toModType(): PublishType? = valuesList.firstOrNull { it.displayName.equals(this, ignoreCase = true) }
 
-        fun File.toModTypes(): List<PublishType> {
-            return runCatching {
-                if (this.exists() && this.extension in arrayOf("jar", "litemod")) {
-                    ZipFile(this).use { zip ->
-                        valuesList.filter { it.getEntry(zip) != null }
-                    }
-                } else emptyList()
-            }.getOrDefault(emptyList())
-        }
+        fun File.toModTypes(): List<PublishType> = JarScanner.scan(this)?.types.orEmpty()
 
         fun VirtualFile.toModTypes(): List<PublishType> = this.toFile().toModTypes()
     }
@@ -33,4 +33,15 @@ data class DependencyInfo(
         type,
         customTitle
     )
+
+    /** Modrinth project to look up: the resolved id, else the first half of an `id,id` pair. */
+    val modrinthId: String?
+        get() = modrinthModInfo?.modid ?: projectIdPart(0)
+
+    /** CurseForge project to look up: the resolved id, else the second half of an `id,id` pair. */
+    val curseforgeId: String?
+        get() = curseforgeModInfo?.modid ?: projectIdPart(1)
+
+    private fun projectIdPart(index: Int): String? =
+        projectId?.takeIf { it.contains(",") }?.split(",", limit = 2)?.getOrNull(index)?.trim()?.takeIf { it.isNotEmpty() }
 }
\ No newline at end of file
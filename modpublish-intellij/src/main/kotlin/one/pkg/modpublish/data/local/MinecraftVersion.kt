@@ -17,6 +17,7 @@
 package one.pkg.modpublish.data.local
 
 import com.google.gson.annotations.SerializedName
+import one.pkg.modpublish.version.Version
 
 @Suppress("UNUSED")
 data class MinecraftVersion(
@@ -25,5 +26,9 @@ data class MinecraftVersion(
     @SerializedName("i") val id: Int = 0,
     @SerializedName("d") val date: String = ""
 ) {
+    /** Parsed form of [version], built on first use and shared through [Version.of]. */
+    @delegate:Transient
+    val parsed: Version by lazy { Version.of(version) }
+
     fun canReleaseToCurseForge(): Boolean = type == "release" && id > 0
 }
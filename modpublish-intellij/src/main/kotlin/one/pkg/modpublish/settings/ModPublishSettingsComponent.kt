@@ -59,6 +59,8 @@ class ModPublishSettingsComponent : BaseDialogWrapper(null) {
     private lateinit var networkConnectTimeoutText: JBTextField
     private lateinit var networkReadTimeoutText: JBTextField
     private lateinit var networkWriteTimeoutText: JBTextField
+    private lateinit var networkMaxUploadsPerHostText: JBTextField
+    private lateinit var networkPreferHttp2CheckBox: JBCheckBox
 
     init {
         val formBuilder = FormBuilder.createFormBuilder()
@@ -139,6 +141,18 @@ class ModPublishSettingsComponent : BaseDialogWrapper(null) {
                     it.toolTipText = "setting.network.connect-timeout.desc".translate()
                     networkConnectTimeoutText = it
                 }
+            },
+            FieldConfig.of("setting.network.max-uploads.name".translate()) {
+                JBTextField().intField(1, 16).also {
+                    it.toolTipText = "setting.network.max-uploads.desc".translate()
+                    networkMaxUploadsPerHostText = it
+                }
+            },
+            FieldConfig.of("setting.network.http2.name".translate()) {
+                JBCheckBox().also {
+                    it.toolTipText = "setting.network.http2.desc".translate()
+                    networkPreferHttp2CheckBox = it
+                }
             }
         )
 
@@ -266,4 +280,16 @@ class ModPublishSettingsComponent : BaseDialogWrapper(null) {
         set(newTimeout) {
             networkWriteTimeoutText.text = newTimeout.toString()
         }
+
+    var networkMaxUploadsPerHost: Int
+        get() = networkMaxUploadsPerHostText.text.toInt()
+        set(newUploads) {
+            networkMaxUploadsPerHostText.text = newUploads.toString()
+        }
+
+    var isNetworkPreferHttp2: Boolean
+        get() = networkPreferHttp2CheckBox.isSelected
+        set(enabled) {
+            networkPreferHttp2CheckBox.isSelected = enabled
+        }
 }
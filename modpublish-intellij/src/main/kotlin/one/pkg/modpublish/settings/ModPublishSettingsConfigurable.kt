@@ -54,7 +54,9 @@ class ModPublishSettingsConfigurable : Configurable {
                 c.isNetworkEnableSSLCheck != state.networkEnableSSLCheck ||
                 c.networkConnectTimeout != state.networkConnectTimeout ||
                 c.networkReadTimeout != state.networkReadTimeout ||
-                c.networkWriteTimeout != state.networkWriteTimeout
+                c.networkWriteTimeout != state.networkWriteTimeout ||
+                c.networkMaxUploadsPerHost != state.networkMaxUploadsPerHost ||
+                c.isNetworkPreferHttp2 != state.networkPreferHttp2
     }
 
     override fun apply() {
@@ -76,6 +78,8 @@ class ModPublishSettingsConfigurable : Configurable {
         state.updateNetworkConnectTimeout(c.networkConnectTimeout)
         state.updateNetworkReadTimeout(c.networkReadTimeout)
         state.updateNetworkWriteTimeout(c.networkWriteTimeout)
+        state.updateNetworkMaxUploadsPerHost(c.networkMaxUploadsPerHost)
+        state.networkPreferHttp2 = c.isNetworkPreferHttp2
     }
 
     override fun reset() {
@@ -97,6 +101,8 @@ class ModPublishSettingsConfigurable : Configurable {
         c.networkConnectTimeout = state.networkConnectTimeout
         c.networkReadTimeout = state.networkReadTimeout
         c.networkWriteTimeout = state.networkWriteTimeout
+        c.networkMaxUploadsPerHost = state.networkMaxUploadsPerHost
+        c.isNetworkPreferHttp2 = state.networkPreferHttp2
     }
 
     override fun disposeUIResources() {
@@ -36,7 +36,8 @@ enum class PID(val id: String, val protect: Boolean) {
     GitlabBranch("modpublish.gitlab.branch", false),
     GenerateForgeUpdateEnabled("modpublish.generate-forge-update.enabled", false),
     GenerateForgeUpdateSplit("modpublish.generate-forge-update.split", false),
-    CommonVersionFormat("modpublish.common.versionFormat", false), ;
+    CommonVersionFormat("modpublish.common.versionFormat", false),
+    CommonOutputDirs("modpublish.common.outputDirs", false), ;
 
     fun get(project: Project): String =
         get(Properties.getPropertiesComponent(project))
@@ -26,12 +26,12 @@ data class Property(
     val gitlab: GitlabProperty,
     val common: CommonProperty
 ) {
-    data class CommonProperty(val versionFormat: String) : PropertyBase {
+    data class CommonProperty(val versionFormat: String, val outputDirs: String) : PropertyBase {
         override fun isEnabled(): Boolean = true
 
         companion object {
             fun getInstance(properties: PropertiesComponent): CommonProperty =
-                CommonProperty(PID.CommonVersionFormat.get(properties))
+                CommonProperty(PID.CommonVersionFormat.get(properties), PID.CommonOutputDirs.get(properties))
         }
     }
 
@@ -16,10 +16,11 @@
  */
 package one.pkg.modpublish.ui
 
+import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.ui.ComboBox
+import com.intellij.platform.ide.progress.runWithModalProgressBlocking
 import com.intellij.ui.components.JBTextField
 import com.intellij.util.ui.JBUI
-import kotlinx.coroutines.runBlocking
 import one.pkg.modpublish.data.internal.ModInfo
 import one.pkg.modpublish.data.internal.ModInfos
 import one.pkg.modpublish.data.internal.PublishTarget
@@ -33,6 +34,7 @@ import java.awt.GridBagConstraints
 import java.awt.GridBagLayout
 import javax.swing.JComponent
 import javax.swing.JPanel
+import kotlin.coroutines.cancellation.CancellationException
 
 class AddDependencyDialog(
     parent: PublishModDialog,
@@ -146,7 +148,18 @@ class AddDependencyDialog(
             return
         }
 
-        validateDependency(resultDependency).apply {
+        // Lookups may retry or wait on a rate limit, so they run off the EDT and can be cancelled
+        val infos = try {
+            runWithModalProgressBlocking(requireNotNull(project), "title.add-dependency".translate()) {
+                validateDependency(resultDependency)
+            }
+        } catch (_: CancellationException) {
+            return
+        } catch (_: ProcessCanceledException) {
+            return
+        }
+
+        infos.apply {
             modrinth?.failed?.let {
                 showFailedDialogRaw(it, "title.failed".translate())
                 return
@@ -164,46 +177,46 @@ class AddDependencyDialog(
         super.doOKAction()
     }
 
-    private fun validateDependency(dependency: DependencyInfo): ModInfos = runBlocking {
+    private suspend fun validateDependency(dependency: DependencyInfo): ModInfos {
         val projectId = dependency.projectId
-        if (projectId.isNullOrBlank()) return@runBlocking ModInfos(ModInfo.of("Project ID cannot be empty"), null)
+        if (projectId.isNullOrBlank()) return ModInfos(ModInfo.of("Project ID cannot be empty"), null)
 
         if (projectId.contains(",")) {
             val parts = projectId.split(",", limit = 2)
-            if (parts.size != 2) return@runBlocking ModInfos(ModInfo.of("Invalid project ID format"), null)
+            if (parts.size != 2) return ModInfos(ModInfo.of("Invalid project ID format"), null)
 
             val modrinthInfo = if (selector.modrinth && parts[0].isNotBlank()) {
                 PublishTarget.Modrinth.api.getModInfo(parts[0], requireNotNull(project)).also {
-                    if (it.failed != null) return@runBlocking ModInfos(it, null)
+                    if (it.failed != null) return ModInfos(it, null)
                 }
             } else null
 
             val curseforgeInfo = if (selector.curseForge && parts[1].isNotBlank()) {
                 if (getProperties(requireNotNull(project)).curseforge.studioToken.failed) {
-                    return@runBlocking ModInfos(null, ModInfo.of("failed.11".translate()))
+                    return ModInfos(null, ModInfo.of("failed.11".translate()))
                 }
                 PublishTarget.CurseForge.api.getModInfo(parts[1], requireNotNull(project)).also {
-                    if (it.failed != null) return@runBlocking ModInfos(null, it)
+                    if (it.failed != null) return ModInfos(null, it)
                 }
             } else null
 
-            return@runBlocking ModInfos(modrinthInfo, curseforgeInfo)
+            return ModInfos(modrinthInfo, curseforgeInfo)
         } else {
             val modrinthInfo = if (selector.modrinth) {
                 PublishTarget.Modrinth.api.getModInfo(projectId, requireNotNull(project))
-                    .also { if (it.failed != null) return@runBlocking ModInfos(it, null) }
+                    .also { if (it.failed != null) return ModInfos(it, null) }
             } else null
 
             val curseforgeInfo = if (selector.curseForge) {
                 if (getProperties(requireNotNull(project)).curseforge.studioToken.failed) {
-                    return@runBlocking ModInfos(null, ModInfo.of("failed.11".translate()))
+                    return ModInfos(null, ModInfo.of("failed.11".translate()))
                 }
                 PublishTarget.CurseForge.api.getModInfo(projectId, requireNotNull(project)).also {
-                    if (it.failed != null) return@runBlocking ModInfos(null, it)
+                    if (it.failed != null) return ModInfos(null, it)
                 }
             } else null
 
-            return@runBlocking ModInfos(modrinthInfo, curseforgeInfo)
+            return ModInfos(modrinthInfo, curseforgeInfo)
         }
     }
 
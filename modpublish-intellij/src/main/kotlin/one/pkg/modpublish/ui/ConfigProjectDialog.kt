@@ -17,6 +17,7 @@
 package one.pkg.modpublish.ui
 
 import com.intellij.ide.util.PropertiesComponent
+import com.intellij.openapi.components.service
 import com.intellij.openapi.project.Project
 import com.intellij.ui.components.JBTextField
 import com.intellij.util.ui.FormBuilder
@@ -25,12 +26,14 @@ import one.pkg.modpublish.settings.properties.Properties.getProperties
 import one.pkg.modpublish.ui.base.BaseDialogWrapper
 import one.pkg.modpublish.ui.base.FieldConfig.Companion.of
 import one.pkg.modpublish.ui.icon.Icons
+import one.pkg.modpublish.util.metadata.BuildOutputWatcher
 import one.pkg.modpublish.util.resources.Lang.translate
 import java.util.*
 import javax.swing.JComponent
 
 class ConfigProjectDialog(project: Project) : BaseDialogWrapper(project) {
     private lateinit var commonVersionFormatField: JBTextField
+    private lateinit var commonOutputDirsField: JBTextField
 
     private lateinit var modrinthTokenField: JBTextField
     private lateinit var modrinthModIDField: JBTextField
@@ -71,6 +74,12 @@ class ConfigProjectDialog(project: Project) : BaseDialogWrapper(project) {
                 createTextField().also {
                     commonVersionFormatField = it
                 }
+            },
+            of("component.name.common.output-dirs".translate()) {
+                createTextField().also {
+                    it.setToolTipText("component.tooltip.common.output-dirs".translate())
+                    commonOutputDirsField = it
+                }
             }
         )
 
@@ -129,6 +138,7 @@ class ConfigProjectDialog(project: Project) : BaseDialogWrapper(project) {
         val p1 = getProperties(Objects.requireNonNull<Project>(project))
 
         commonVersionFormatField.text = p1.common.versionFormat
+        commonOutputDirsField.text = p1.common.outputDirs
 
         if (p1.modrinth.token.globalData) modrinthTokenField.setToolTipText("dialog.modpublish.config-project.global".translate())
         else modrinthTokenField.text = p1.modrinth.token.data
@@ -157,6 +167,7 @@ class ConfigProjectDialog(project: Project) : BaseDialogWrapper(project) {
         val properties = PropertiesComponent.getInstance(Objects.requireNonNull<Project>(project))
 
         PID.CommonVersionFormat.set(properties, commonVersionFormatField)
+        PID.CommonOutputDirs.set(properties, commonOutputDirsField)
 
         PID.ModrinthToken.set(properties, modrinthTokenField)
         PID.ModrinthModID.set(properties, modrinthModIDField)
@@ -172,5 +183,7 @@ class ConfigProjectDialog(project: Project) : BaseDialogWrapper(project) {
         PID.GitlabToken.set(properties, gitlabTokenField)
         PID.GitlabRepo.set(properties, gitlabRepoField)
         PID.GitlabBranch.set(properties, gitlabBranchField)
+
+        project?.service<BuildOutputWatcher>()?.settingsChanged()
     }
 }
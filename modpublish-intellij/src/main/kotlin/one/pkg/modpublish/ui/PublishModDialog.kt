@@ -19,6 +19,7 @@ package one.pkg.modpublish.ui
 import com.intellij.ide.util.PropertiesComponent
 import com.intellij.lang.Language
 import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.components.service
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.ui.ComboBox
 import com.intellij.openapi.vfs.VirtualFile
@@ -34,8 +35,8 @@ import kotlinx.coroutines.Deferred
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.runBlocking
 import one.pkg.modpublish.api.API
+import one.pkg.modpublish.api.NetworkUtil
 import one.pkg.modpublish.data.internal.*
-import one.pkg.modpublish.data.internal.PublishType.Companion.toModTypes
 import one.pkg.modpublish.data.local.DependencyInfo
 import one.pkg.modpublish.data.local.MinecraftVersion
 import one.pkg.modpublish.data.local.SupportedInfo
@@ -56,11 +57,15 @@ import one.pkg.modpublish.util.io.FileAPI.toFile
 import one.pkg.modpublish.util.io.JsonParser.fromJson
 import one.pkg.modpublish.util.io.JsonParser.toJson
 import one.pkg.modpublish.util.io.VersionProcessor
+import one.pkg.modpublish.util.metadata.BuildOutputWatcher
+import one.pkg.modpublish.util.metadata.JarIndex
 import one.pkg.modpublish.util.metadata.ModVersion.extractVersionNumber
 import one.pkg.modpublish.util.resources.Lang.translate
 import one.pkg.modpublish.util.resources.LocalResources
+import one.pkg.modpublish.version.VersionIndex
 import one.pkg.modpublish.version.constraint.VersionConstraint
 import one.pkg.modpublish.version.constraint.VersionConstraintParser
+import one.pkg.modpublish.version.constraint.VersionRangeSet
 import org.intellij.plugins.markdown.lang.MarkdownFileType
 import java.awt.BorderLayout
 import java.awt.Dimension
@@ -78,8 +83,8 @@ class PublishModDialog(
         private val LOG = Logger.getInstance(Companion::class.java)
     }
 
-    private val publishTypes: Map<VirtualFile, List<PublishType>> =
-        jarFiles.associateWith { it.toModTypes() }
+    // Filled in by scanJars, only touched on the EDT
+    private val metadata = HashMap<VirtualFile, JarMetadata>()
 
     private var modInfo: LocalModInfo? = null
     private var parser: VersionConstraint? = null
@@ -107,11 +112,13 @@ class PublishModDialog(
     private lateinit var modrinthEnvironmentComboBox: ComboBox<ModrinthEnvironment>
 
     private var minecraftVersions: List<MinecraftVersion>? = null
+    /** Built once per loaded version list, whatever the snapshot filter shows. */
+    private var minecraftVersionIndex: VersionIndex? = null
+    /** Model position of each entry of [minecraftVersions], or -1 when it is filtered out. */
+    private var minecraftModelPositions = IntArray(0)
     private lateinit var supportedInfo: SupportedInfo
 
     init {
-        updateParser(jarFiles.first())
-
         setTitle("title.publish", jarFiles.first().name)
         isModal = true
 
@@ -120,15 +127,55 @@ class PublishModDialog(
         setOKButtonText("button.publish".translate())
         setCancelButtonText("button.cancel".translate())
         setOKButtonDefault()
+
+        project?.service<BuildOutputWatcher>()?.markUsed()
+        scanJars()
+    }
+
+    /**
+     * Reads the loaders of every jar in the background, starting with the primary file, so the
+     * dialog can show up before any archive has been opened.
+     */
+    private fun scanJars() {
+        val files = jarFiles.toList()
+        okAction.isEnabled = false
+
+        Async.rAsync {
+            try {
+                files.forEach { file ->
+                    // A jar that cannot be read is treated as empty rather than stopping the scan
+                    val scanned = runCatching { JarIndex.get(file) }.getOrNull() ?: JarMetadata.EMPTY
+                    SwingUtilities.invokeLater {
+                        if (isDisposed) return@invokeLater
+                        metadata[file] = scanned
+                        if (file == jarFiles.first()) loadPrimaryFile(file)
+                    }
+                }
+            } finally {
+                // Whatever happened above, the dialog must stay confirmable
+                SwingUtilities.invokeLater { if (!isDisposed) okAction.isEnabled = true }
+            }
+        }
     }
 
-    private fun updateParser(primaryFile: VirtualFile) {
-        parser = publishTypes[primaryFile]
-            ?.firstOrNull { it != PublishType.JavaAgent }
-            ?.run { getMod(primaryFile).also { modInfo = it } }
-            ?.versionRange
-            ?.takeIf { it.isNotEmpty() }
-            ?.let { runCatching { VersionConstraintParser.parse(it) }.getOrNull() }
+    /**
+     * Fills the form from the scanned metadata of [file]. Does nothing until [scanJars] has
+     * reached the file; it is called again at that point.
+     */
+    private fun loadPrimaryFile(file: VirtualFile) {
+        val scanned = metadata[file] ?: return
+
+        try {
+            modInfo = scanned.modInfo
+            parser = scanned.modInfo?.versionRange
+                ?.takeIf { it.isNotEmpty() }
+                ?.let { runCatching { VersionConstraintParser.parse(it) }.getOrNull() }
+            loaderCheckBoxes.forEach { it.second.isSelected = scanned.types.contains(it.first) }
+            loadModInfo(file)
+            updateMinecraftVersions()
+        } finally {
+            okAction.isEnabled = true
+        }
     }
 
     private fun loadConfigData() {
@@ -158,20 +205,18 @@ class PublishModDialog(
         val current = primaryFile.selectedItem as VirtualFile
         updateJarFiles(current)
 
-        val types = publishTypes[current].orEmpty()
-        loaderCheckBoxes.forEach { it.second.isSelected = types.contains(it.first) }
-
-        updateParser(current)
-        loadModInfo(current)
-        updateMinecraftVersions()
+        modInfo = null
+        parser = null
+        okAction.isEnabled = false
+        loadPrimaryFile(current)
         setTitle("title.publish", current.name)
     }
 
     override fun createCenterPanel(): JComponent {
         val formBuilder = FormBuilder.createFormBuilder()
 
-        versionNameField = JBTextField()
-        versionNumberField = JBTextField()
+        versionNameField = JBTextField().apply { emptyText.text = "component.placeholder.scanning".translate() }
+        versionNumberField = JBTextField().apply { emptyText.text = "component.placeholder.scanning".translate() }
         formBuilder.addLabeledComponent("component.name.version-name".translate(), versionNameField)
         formBuilder.addLabeledComponent("component.name.version-number".translate(), versionNumberField)
 
@@ -230,7 +275,7 @@ class PublishModDialog(
 
         loaderCheckBoxes = PublishType.valuesList.map { launcher ->
             launcher to JBCheckBox(launcher.displayName).apply {
-                isSelected = publishTypes.values.first().contains(launcher)
+                isSelected = metadata[jarFiles.first()]?.types.orEmpty().contains(launcher)
             }
         }
 
@@ -351,10 +396,14 @@ class PublishModDialog(
 
             if (minecraftVersions == null) {
                 minecraftVersions = LocalResources.getMinecraftVersions()
+                minecraftVersionIndex = VersionIndex.of(minecraftVersions.orEmpty().map { it.parsed })
             }
 
-            minecraftVersions.orEmpty().forEach {
+            val versions = minecraftVersions.orEmpty()
+            minecraftModelPositions = IntArray(versions.size) { -1 }
+            versions.forEachIndexed { i, it ->
                 if (it.type == "release" || (includeSnapshots && it.type == "snapshot")) {
+                    minecraftModelPositions[i] = minecraftVersionModel.size
                     minecraftVersionModel.addElement(MinecraftVersionItem(it, false))
                 }
             }
@@ -364,14 +413,14 @@ class PublishModDialog(
     }
 
     private fun autoFillFields() {
-        loadModInfo(jarFiles.first())
+        // The version fields are filled by loadPrimaryFile once the primary jar has been read
         loadPersistedData()
     }
 
     private fun loadModInfo(current: VirtualFile) {
         LOG.info("Start load mod info: ${current.name}")
         updateSideType()
-        val modType = publishTypes[current]?.firstOrNull()
+        val modType = metadata[current]?.types?.firstOrNull()
         if (modType != null) LOG.info("Loading mod info: ${modType.name}")
         val versionNameFormat = PID.CommonVersionFormat.get(requireNotNull(project))
         if (versionNameFormat.isNotEmpty()) LOG.info("Loading versionNameFormat: $versionNameFormat")
@@ -404,9 +453,14 @@ class PublishModDialog(
         if (minecraftVersionModel.size == 0) return
 
         val indicesToSelect = parser?.let { p ->
-            (0 until minecraftVersionModel.size).filter { i ->
-                val v = minecraftVersionModel.getElementAt(i).version.version
-                p.satisfies(one.pkg.modpublish.version.Version(v))
+            val index = minecraftVersionIndex
+            val compiled = VersionRangeSet.compile(p)
+            if (index != null && compiled != null) {
+                compiled.match(index).map { minecraftModelPositions[it] }.filter { it >= 0 }
+            } else {
+                (0 until minecraftVersionModel.size).filter { i ->
+                    p.satisfies(minecraftVersionModel.getElementAt(i).version.parsed)
+                }
             }
         } ?: listOf(0)
 
@@ -456,6 +510,13 @@ class PublishModDialog(
             gitlabCheckBox.setFailedSelect()
         }
 
+        NetworkUtil.warmUp(
+            listOf(
+                PublishTarget.Modrinth to modrinthCheckBox, PublishTarget.CurseForge to curseforgeCheckBox,
+                PublishTarget.Github to githubCheckBox, PublishTarget.Gitlab to gitlabCheckBox
+            ).filter { it.second.isEnabled }.flatMap { it.first.api.warmUpUrls }
+        )
+
         changelogField.text = properties.getValue("modpublish.changelog", "").replace("\r\n", "\n").replace("\r", "\n")
 
         val savedDependenciesJson = properties.getValue("modpublish.dependencies", "[]")
@@ -465,6 +526,7 @@ class PublishModDialog(
             emptyList()
         }
         dependencyPanel.setDependencies(savedDependencies.toMutableList())
+        resolveDependencies(savedDependencies, p2.modrinth.isEnabled(), p2.curseforge.isEnabled() && !p2.curseforge.studioToken.failed)
 
         val savedEnv = properties.getValue("modpublish.environment", "")
         if (savedEnv.isNotEmpty()) {
@@ -474,6 +536,33 @@ class PublishModDialog(
         }
     }
 
+    /**
+     * Refreshes the names and slugs of the saved dependencies in the background, with one bulk
+     * request per platform instead of one request per dependency.
+     */
+    private fun resolveDependencies(dependencies: List<DependencyInfo>, modrinth: Boolean, curseforge: Boolean) {
+        if (dependencies.isEmpty()) return
+        val project = requireNotNull(project)
+
+        Async.rAsync {
+            val modrinthInfos = if (modrinth) {
+                PublishTarget.Modrinth.api.getModInfos(dependencies.mapNotNull { it.modrinthId }, project)
+            } else emptyMap()
+            val curseforgeInfos = if (curseforge) {
+                PublishTarget.CurseForge.api.getModInfos(dependencies.mapNotNull { it.curseforgeId }, project)
+            } else emptyMap()
+            if (modrinthInfos.isEmpty() && curseforgeInfos.isEmpty()) return@rAsync
+
+            SwingUtilities.invokeLater {
+                dependencies.forEach { dep ->
+                    dep.modrinthId?.let { modrinthInfos[it] }?.let { dep.modrinthModInfo = it }
+                    dep.curseforgeId?.let { curseforgeInfos[it] }?.let { dep.curseforgeModInfo = it }
+                }
+                dependencyPanel.refreshDependencies()
+            }
+        }
+    }
+
     private fun savePersistedData() {
         val properties = PropertiesComponent.getInstance(requireNotNull(project))
         properties.setValue("modpublish.changelog", changelogField.text)
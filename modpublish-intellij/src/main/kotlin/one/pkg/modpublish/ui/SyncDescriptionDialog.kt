@@ -17,11 +17,12 @@
 
 package one.pkg.modpublish.ui
 
+import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.ui.ComboBox
 import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.platform.ide.progress.runWithModalProgressBlocking
 import com.intellij.util.ui.JBUI
-import kotlinx.coroutines.runBlocking
 import one.pkg.modpublish.data.internal.Info
 import one.pkg.modpublish.data.internal.PublishTarget
 import one.pkg.modpublish.settings.properties.PID
@@ -35,6 +36,7 @@ import javax.swing.DefaultListCellRenderer
 import javax.swing.JComponent
 import javax.swing.JList
 import javax.swing.JPanel
+import kotlin.coroutines.cancellation.CancellationException
 
 class SyncDescriptionDialog(
     val file: VirtualFile,
@@ -90,8 +92,15 @@ class SyncDescriptionDialog(
             return
         }
 
-        val result = runBlocking {
-            selectedType.api.patchDescription(modrinthID, file.toFile().readText(Charsets.UTF_8), project)
+        // The request may wait on a rate limit, so it runs off the EDT and can be cancelled
+        val result = try {
+            runWithModalProgressBlocking(project, "action.modpublish.action.patch-description.text".translate()) {
+                selectedType.api.patchDescription(modrinthID, file.toFile().readText(Charsets.UTF_8), project)
+            }
+        } catch (_: CancellationException) {
+            return
+        } catch (_: ProcessCanceledException) {
+            return
         }
         if (result.isFailure) {
             showFailedDialogRaw(
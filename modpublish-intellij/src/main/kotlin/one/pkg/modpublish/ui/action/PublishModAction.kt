@@ -23,15 +23,24 @@ import com.intellij.openapi.actionSystem.CommonDataKeys
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.progress.Task
+import com.intellij.openapi.progress.runBlockingCancellable
 import com.intellij.openapi.vfs.VirtualFile
-import one.pkg.modpublish.data.internal.PublishType.Companion.toModType
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
 import one.pkg.modpublish.ui.PublishModDialog
 import one.pkg.modpublish.ui.icon.Icons
-import one.pkg.modpublish.util.io.FileAPI.toFile
+import one.pkg.modpublish.util.metadata.JarIndex
 import one.pkg.modpublish.util.resources.Lang
+import java.util.concurrent.atomic.AtomicInteger
 import javax.swing.JOptionPane
 
 class PublishModAction : AnAction() {
+    companion object {
+        private val scanDispatcher =
+            Dispatchers.IO.limitedParallelism(Runtime.getRuntime().availableProcessors().coerceIn(2, 8))
+    }
+
     override fun actionPerformed(event: AnActionEvent) {
         var file: Array<VirtualFile>? = event.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY)
         if (file.isNullOrEmpty()) {
@@ -52,10 +61,23 @@ class PublishModAction : AnAction() {
             val project = event.project
             object : Task.Backgroundable(project, "Scanning Mod Files", true) {
                 override fun run(indicator: ProgressIndicator) {
-                    val validFiles = candidates.filter {
-                        indicator.checkCanceled()
-                        it.toFile().toModType() != null
+                    indicator.isIndeterminate = false
+                    val scanned = AtomicInteger()
+
+                    // Results keep the order of the selection, whatever order the scans finish in.
+                    // Cancelling the task cancels the scans still queued on scanDispatcher.
+                    val validFiles = runBlockingCancellable {
+                        candidates.map { file ->
+                            async(scanDispatcher) {
+                                indicator.checkCanceled()
+                                val valid = JarIndex.get(file)?.modType != null
+                                indicator.fraction = scanned.incrementAndGet().toDouble() / candidates.size
+                                indicator.text2 = file.name
+                                file.takeIf { valid }
+                            }
+                        }.awaitAll().filterNotNull()
                     }
+                    indicator.checkCanceled()
 
                     ApplicationManager.getApplication().invokeLater {
                         if (validFiles.isNotEmpty()) {
@@ -97,7 +119,7 @@ class PublishModAction : AnAction() {
             val isJarFile = file.name.endsWith(".jar") || file.name.endsWith(".litemod")
             if (isJarFile) {
                 runCatching {
-                    val modType = file.toFile().toModType()
+                    val modType = JarIndex.get(file)?.modType
                     shouldShow = true
                     shouldEnable = modType != null
                 }.onFailure { shouldShow = true }
@@ -203,6 +203,21 @@ class DependencyManagerPanel(private val parentDialog: PublishModDialog) : JPane
 
     fun getDependencies(): List<DependencyInfo> = ArrayList(dependencies)
 
+    /**
+     * Rebuilds every row, e.g. after the mod info of the current dependencies has been resolved.
+     */
+    fun refreshDependencies() {
+        dependencyPanels.clear()
+        dependencyListPanel.removeAll()
+        dependencies.forEach { dep ->
+            val panel = createDependencyPanel(dep)
+            dependencyPanels[dep] = panel
+            dependencyListPanel.add(panel)
+        }
+        dependencyListPanel.revalidate()
+        dependencyListPanel.repaint()
+    }
+
     fun setDependencies(dependencies: List<DependencyInfo>?) {
         val incoming = dependencies ?: emptyList()
         val incomingSet = incoming.toSet()
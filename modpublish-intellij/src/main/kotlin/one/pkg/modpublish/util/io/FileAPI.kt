@@ -18,13 +18,9 @@ package one.pkg.modpublish.util.io
 
 import com.intellij.openapi.vfs.VirtualFile
 import java.io.File
-import java.io.IOException
-import java.io.InputStream
 import java.nio.file.Path
 import java.nio.file.Paths
-import java.util.jar.JarFile
-import java.util.zip.ZipEntry
-import java.util.zip.ZipFile
+import java.util.jar.Manifest
 
 object FileAPI {
     init {
@@ -42,40 +38,10 @@ object FileAPI {
         return File(this.path)
     }
 
-    fun VirtualFile.toJarFile(): JarFile? {
-        return this.path.toJarFile()
-    }
-
-    fun File.toJarFile(): JarFile? = try {
-        if (this.exists() && this.extension in arrayOf("jar", "litemod")) {
-            JarFile(this)
-        } else null
-    } catch (_: Exception) {
-        null
-    }
-
-    fun String.toJarFile(): JarFile? {
-        try {
-            return JarFile(this)
-        } catch (e: Exception) {
-            e.printStackTrace()
-            return null
-        }
-    }
-
-    fun File.isJavaAgent(): Boolean =
-        toJarFile()?.isJavaAgent() ?: false
-
-    fun JarFile.isJavaAgent(): Boolean = try {
-        this.use { jar ->
-            jar.manifest?.mainAttributes?.let { attrs ->
-                attrs.getValue("Premain-Class") != null ||
-                        attrs.getValue("Agent-Class") != null ||
-                        attrs.getValue("Launcher-Agent-Class") != null
-            } ?: false
-        }
-    } catch (_: Exception) {
-        false
+    fun Manifest.hasAgentAttributes(): Boolean = mainAttributes.let { attrs ->
+        attrs.getValue("Premain-Class") != null ||
+                attrs.getValue("Agent-Class") != null ||
+                attrs.getValue("Launcher-Agent-Class") != null
     }
 
     fun String.getUserData(): Path {
@@ -85,9 +51,4 @@ object FileAPI {
     fun String.getUserDataFile(): File {
         return this.getUserData().toFile()
     }
-
-    @Throws(IOException::class)
-    fun ZipFile.open(zipEntry: ZipEntry): InputStream? {
-        return this.getInputStream(zipEntry)
-    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.util.metadata
+
+import java.io.Closeable
+import java.io.File
+import java.io.InputStream
+import java.util.jar.JarFile
+
+/**
+ * Read access to the few entries of an archive that mod detection needs.
+ */
+interface ArchiveEntries : Closeable {
+    val file: File
+
+    fun contains(name: String): Boolean
+
+    fun open(name: String): InputStream?
+
+    /**
+     * [ArchiveEntries] backed by a regular [JarFile], for archives [ZipProbe] cannot read.
+     */
+    class Jar(override val file: File) : ArchiveEntries {
+        private val jar = JarFile(file)
+
+        override fun contains(name: String): Boolean = jar.getEntry(name) != null
+
+        override fun open(name: String): InputStream? = jar.getEntry(name)?.let { jar.getInputStream(it) }
+
+        override fun close() = jar.close()
+    }
+}
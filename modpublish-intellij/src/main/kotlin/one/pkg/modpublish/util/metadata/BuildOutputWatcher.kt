@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.util.metadata
+
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.project.guessProjectDir
+import com.intellij.openapi.startup.ProjectActivity
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import one.pkg.modpublish.settings.properties.PID
+import java.io.File
+
+/**
+ * Fills [JarIndex] with the jars a build writes into the project's output directories, so
+ * their metadata is already known by the time they are right-clicked.
+ *
+ * The directories come from [PID.CommonOutputDirs] (relative to the project, separated by
+ * `;`) and default to `build/libs`. Nothing is scanned until the project has a publish target
+ * configured or the publish dialog has been opened in it, so projects that do not use the
+ * plugin cost nothing. After that, existing jars are scanned once and [Listener] reports new
+ * and changed ones.
+ */
+@Service(Service.Level.PROJECT)
+class BuildOutputWatcher(private val project: Project, private val scope: CoroutineScope) {
+    private val pending = LinkedHashSet<String>()
+    private var flush: Job? = null
+    private var firstEvent = 0L
+    private var lastEvent = 0L
+
+    @Volatile
+    private var used = false
+    @Volatile
+    private var cachedDirs: List<File>? = null
+    @Volatile
+    private var cachedEnabled: Boolean? = null
+
+    fun outputDirs(): List<File> = cachedDirs ?: readOutputDirs().also { cachedDirs = it }
+
+    private fun readOutputDirs(): List<File> {
+        val base = project.guessProjectDir()?.path ?: project.basePath ?: return emptyList()
+        val configured = PID.CommonOutputDirs.get(project).split(';').map { it.trim() }.filter { it.isNotEmpty() }
+        return configured.ifEmpty { listOf(DEFAULT_OUTPUT) }.map { dir ->
+            File(dir).takeIf { it.isAbsolute } ?: File(base, dir)
+        }
+    }
+
+    fun isEnabled(): Boolean = used || (cachedEnabled ?: isConfigured().also { cachedEnabled = it })
+
+    private fun isConfigured(): Boolean =
+        arrayOf(PID.ModrinthModID, PID.CurseForgeModID, PID.GithubRepo, PID.GitlabRepo).any { it.get(project).isNotBlank() }
+
+    fun isOutput(path: String): Boolean {
+        if (!path.endsWith(".jar") && !path.endsWith(".litemod")) return false
+        if (!isEnabled()) return false
+        val parent = File(path).parentFile ?: return false
+        return outputDirs().any { it == parent }
+    }
+
+    /**
+     * Rereads the output directories and publish targets after the project configuration has
+     * been saved, and scans the directories again since they may have changed.
+     */
+    fun settingsChanged() {
+        cachedDirs = null
+        cachedEnabled = null
+        if (isEnabled()) scope.launch(Dispatchers.IO) { prescanExisting() }
+    }
+
+    /**
+     * Called when the publish dialog opens, which enables the watcher for the rest of the session.
+     */
+    fun markUsed() {
+        if (used) return
+        val wasEnabled = isEnabled()
+        used = true
+        if (!wasEnabled) scope.launch(Dispatchers.IO) { prescanExisting() }
+    }
+
+    /**
+     * Queues jars for scanning. A build usually writes several jars in a row, so the queue is
+     * flushed once events have been quiet for [SETTLE_DELAY], but no later than [MAX_DELAY]
+     * after the first queued event, so a steady stream of events cannot postpone it forever.
+     */
+    @Synchronized
+    fun prescan(paths: Collection<String>) {
+        if (!pending.addAll(paths)) return
+        val now = System.currentTimeMillis()
+        lastEvent = now
+        if (flush != null) return
+
+        firstEvent = now
+        flush = scope.launch(Dispatchers.IO) {
+            while (true) {
+                val wait = synchronized(this@BuildOutputWatcher) {
+                    minOf(lastEvent + SETTLE_DELAY, firstEvent + MAX_DELAY) - System.currentTimeMillis()
+                }
+                if (wait <= 0) break
+                delay(wait)
+            }
+            val batch = synchronized(this@BuildOutputWatcher) {
+                flush = null
+                pending.toList().also { pending.clear() }
+            }
+            batch.forEach { runCatching { JarIndex.get(File(it)) } }
+        }
+    }
+
+    fun prescanExisting() {
+        if (!isEnabled()) return
+        val jars = outputDirs().flatMap { dir ->
+            dir.listFiles { file -> file.isFile && (file.extension == "jar" || file.extension == "litemod") }
+                ?.map { it.path }
+                .orEmpty()
+        }
+        if (jars.isNotEmpty()) prescan(jars)
+    }
+
+    class Listener(private val project: Project) : BulkFileListener {
+        override fun after(events: List<VFileEvent>) {
+            val watcher = project.service<BuildOutputWatcher>()
+            val paths = events.mapNotNull { event ->
+                when (event) {
+                    is VFileCreateEvent, is VFileContentChangeEvent, is VFileMoveEvent -> event.path
+                    is VFileCopyEvent -> event.findCreatedFile()?.path
+                    else -> null
+                }?.takeIf { watcher.isOutput(it) }
+            }
+            if (paths.isNotEmpty()) watcher.prescan(paths)
+        }
+    }
+
+    class Startup : ProjectActivity {
+        override suspend fun execute(project: Project) {
+            project.service<BuildOutputWatcher>().prescanExisting()
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_OUTPUT = "build/libs"
+        private const val SETTLE_DELAY = 1000L
+        private const val MAX_DELAY = 5000L
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.util.metadata
+
+import com.google.gson.reflect.TypeToken
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.vfs.VirtualFile
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import one.pkg.modpublish.data.internal.JarMetadata
+import one.pkg.modpublish.util.io.FileAPI.getUserDataFile
+import one.pkg.modpublish.util.io.FileAPI.toFile
+import one.pkg.modpublish.util.io.JsonParser.fromJson
+import one.pkg.modpublish.util.io.JsonParser.toJson
+import java.io.File
+import java.lang.reflect.Type
+import java.nio.charset.StandardCharsets
+
+/**
+ * Remembers the [JarScanner] result of each jar in `~/.modpublish/jar.index.json`, so that
+ * right-clicking or publishing an unchanged build output does not open the archive again.
+ *
+ * Entries are keyed by absolute path and only used while the size and modification time still
+ * match, and [JarIndexListener] drops them as soon as the VFS reports a change. The index keeps the
+ * [MAX_ENTRIES] most recently used jars.
+ *
+ * New scans only mark the index dirty. It is written from a snapshot shortly afterwards, outside
+ * the index lock, so a burst of scans costs one write and scanners never wait on the disk.
+ */
+object JarIndex {
+    private val LOG = Logger.getInstance(JarIndex::class.java)
+    private val type: Type = object : TypeToken<LinkedHashMap<String, Entry>>() {}.type
+    private val saveScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val saveLock = Any()
+    private var cached: LinkedHashMap<String, Entry>? = null
+    private var pendingSave: Job? = null
+
+    private const val MAX_ENTRIES = 512
+    private const val SAVE_DELAY = 2000L
+
+    private data class Entry(val size: Long = 0, val modified: Long = 0, val metadata: JarMetadata? = null)
+
+    fun get(file: File): JarMetadata? {
+        val key = file.absolutePath
+        synchronized(this) {
+            // An access-order map, so a hit also moves the jar to the most recently used end
+            entries()[key]?.takeIf { it.size == file.length() && it.modified == file.lastModified() }
+                ?.metadata?.let { return it }
+        }
+
+        // Scan outside the lock, a second scan of the same jar is harmless
+        val size = file.length()
+        val modified = file.lastModified()
+        val metadata = JarScanner.scan(file) ?: return null
+        synchronized(this) {
+            val entries = entries()
+            entries[key] = Entry(size, modified, metadata)
+            while (entries.size > MAX_ENTRIES) entries.remove(entries.keys.first())
+            scheduleSave()
+        }
+        return metadata
+    }
+
+    fun get(file: VirtualFile): JarMetadata? = get(file.toFile())
+
+    /**
+     * Forgets [paths] in memory only; this runs on VFS events, and the file on disk is rewritten
+     * with the next scan. Stale entries left there are rejected by their size and timestamp.
+     */
+    @Synchronized
+    fun invalidate(paths: Collection<String>) {
+        val entries = entries()
+        paths.forEach { entries.remove(File(it).absolutePath) }
+    }
+
+    private fun entries(): LinkedHashMap<String, Entry> {
+        cached?.let { return it }
+        val file = "jar.index.json".getUserDataFile()
+        val loaded = runCatching {
+            if (file.exists()) file.readText(StandardCharsets.UTF_8).fromJson<LinkedHashMap<String, Entry>>(type)
+            else null
+        }.onFailure { LOG.warn("Failed to read jar index, starting over", it) }.getOrNull()
+        // The file is written least recently used first, so loading in order restores the LRU order
+        return LinkedHashMap<String, Entry>(16, 0.75f, true).also { map ->
+            loaded?.let { map.putAll(it) }
+            cached = map
+        }
+    }
+
+    /** Must be called while holding the index lock. */
+    private fun scheduleSave() {
+        if (pendingSave != null) return
+        pendingSave = saveScope.launch {
+            delay(SAVE_DELAY)
+            val snapshot = synchronized(this@JarIndex) {
+                pendingSave = null
+                LinkedHashMap(entries())
+            }
+            save(snapshot)
+        }
+    }
+
+    private fun save(snapshot: Map<String, Entry>) = synchronized(saveLock) {
+        runCatching {
+            "jar.index.json".getUserDataFile().bufferedWriter(StandardCharsets.UTF_8).use { writer ->
+                snapshot.toJson(writer)
+            }
+        }.onFailure { LOG.warn("Failed to save jar index", it) }
+    }
+}
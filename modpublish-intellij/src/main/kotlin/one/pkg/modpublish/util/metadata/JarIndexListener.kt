@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.util.metadata
+
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent
+
+/**
+ * Drops [JarIndex] entries of jars that were changed, moved, renamed or deleted.
+ */
+class JarIndexListener : BulkFileListener {
+    override fun after(events: List<VFileEvent>) {
+        val paths = ArrayList<String>()
+        for (event in events) {
+            event.path.takeIf { it.isJar() }?.let(paths::add)
+            when (event) {
+                is VFileMoveEvent -> event.oldPath.takeIf { it.isJar() }?.let(paths::add)
+                is VFilePropertyChangeEvent -> event.oldPath.takeIf { it.isJar() }?.let(paths::add)
+            }
+        }
+        if (paths.isNotEmpty()) JarIndex.invalidate(paths)
+    }
+
+    private fun String.isJar(): Boolean = endsWith(".jar") || endsWith(".litemod")
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.util.metadata
+
+import com.intellij.openapi.vfs.VirtualFile
+import one.pkg.modpublish.data.internal.JarMetadata
+import one.pkg.modpublish.data.internal.PublishType
+import one.pkg.modpublish.util.io.FileAPI.hasAgentAttributes
+import one.pkg.modpublish.util.io.FileAPI.toFile
+import java.io.File
+import java.util.jar.Manifest
+
+/**
+ * Reads the loader types, mod metadata and agent attributes of a jar while opening it once.
+ *
+ * Archives are read through [ZipProbe], which only looks for the handful of entries listed in
+ * [PROBED_NAMES] and never builds a full entry table. Archives it cannot read fall back to a
+ * [java.util.jar.JarFile].
+ */
+object JarScanner {
+    private const val MANIFEST = "META-INF/MANIFEST.MF"
+
+    private val PROBED_NAMES: List<String> =
+        PublishType.valuesList.mapNotNull { it.fileName.takeIf { name -> name.isNotEmpty() } } + "mcmod.info" + MANIFEST
+
+    /**
+     * Returns `null` when [file] is not a readable `.jar` or `.litemod`.
+     */
+    fun scan(file: File): JarMetadata? {
+        if (!file.isFile || file.extension !in arrayOf("jar", "litemod")) return null
+
+        return runCatching {
+            open(file)?.use { archive ->
+                val types = PublishType.valuesList.filter { it != PublishType.JavaAgent && archive.contains(it.fileName) }
+                JarMetadata(types, types.firstOrNull()?.readMod(archive), isJavaAgent(archive))
+            }
+        }.getOrNull()
+    }
+
+    fun scan(file: VirtualFile): JarMetadata? = scan(file.toFile())
+
+    fun open(file: File): ArchiveEntries? =
+        ZipProbe.open(file, PROBED_NAMES) ?: runCatching { ArchiveEntries.Jar(file) }.getOrNull()
+
+    fun isJavaAgent(archive: ArchiveEntries): Boolean = runCatching {
+        archive.open(MANIFEST)?.use { Manifest(it).hasAgentAttributes() } ?: false
+    }.getOrDefault(false)
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2025 - 2026 404Setup (https://github.com/404Setup)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package one.pkg.modpublish.util.metadata
+
+import java.io.ByteArrayInputStream
+import java.io.File
+import java.io.InputStream
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.util.zip.Inflater
+import java.util.zip.InflaterInputStream
+import java.util.zip.ZipException
+
+/**
+ * Looks up a fixed set of entry names straight from a zip's central directory.
+ *
+ * Only the End Of Central Directory record and the central directory itself are read, with
+ * positional reads into heap buffers, so no mapping keeps the file locked once the probe is
+ * closed. The walk compares raw name bytes against the wanted names (length first) without
+ * decoding names or building an entry table. It covers the whole directory unless every name
+ * turns up first, because a jar may carry metadata for several loaders. Only the entries that
+ * are then opened are read from disk.
+ *
+ * ZIP64 and malformed archives are not handled: [ZipProbe.open] returns `null` for them and
+ * callers fall back to [ArchiveEntries.Jar]. Entries using a compression method other than
+ * stored or deflated cannot be opened.
+ */
+class ZipProbe private constructor(
+    override val file: File,
+    private val channel: FileChannel,
+    private val entries: Map<String, Entry>
+) : ArchiveEntries {
+    private class Entry(val method: Int, val compressedSize: Long, val offset: Long)
+
+    override fun contains(name: String): Boolean = entries.containsKey(name)
+
+    override fun open(name: String): InputStream? {
+        val entry = entries[name] ?: return null
+        if (entry.compressedSize > Int.MAX_VALUE - 1) return null
+
+        val header = read(entry.offset, LOC_HEADER)
+        if (header.getInt(0) != LOC_SIG) throw ZipException("Invalid local header for $name in ${file.name}")
+        val dataStart = entry.offset + LOC_HEADER + header.u16(26) + header.u16(28)
+
+        return when (entry.method) {
+            STORED -> ByteArrayInputStream(read(dataStart, entry.compressedSize.toInt()).array())
+            // A raw inflater may need one byte past the end of the data, see Inflater(boolean)
+            DEFLATED -> object : InflaterInputStream(
+                ByteArrayInputStream(read(dataStart, entry.compressedSize.toInt(), 1).array()), Inflater(true)
+            ) {
+                override fun close() {
+                    super.close()
+                    inf.end()
+                }
+            }
+
+            else -> null
+        }
+    }
+
+    private fun read(position: Long, length: Int, padding: Int = 0): ByteBuffer =
+        channel.readAt(position, length, padding) ?: throw ZipException("Unexpected end of ${file.name}")
+
+    override fun close() = channel.close()
+
+    companion object {
+        private const val EOCD_SIG = 0x06054b50
+        private const val CEN_SIG = 0x02014b50
+        private const val LOC_SIG = 0x04034b50
+        private const val ZIP64_LOCATOR_SIG = 0x07064b50
+
+        private const val EOCD_SIZE = 22
+        private const val CEN_HEADER = 46
+        private const val LOC_HEADER = 30
+        private const val ZIP64_LOCATOR_SIZE = 20
+        private const val MAX_COMMENT = 0xFFFF
+
+        private const val STORED = 0
+        private const val DEFLATED = 8
+
+        /**
+         * Probes [file] for [names]. Returns `null` when the archive cannot be probed this way.
+         */
+        fun open(file: File, names: Collection<String>): ZipProbe? {
+            val channel = runCatching { FileChannel.open(file.toPath(), StandardOpenOption.READ) }.getOrNull()
+                ?: return null
+            val entries = runCatching { readDirectory(channel, names.toList()) }.getOrNull()
+            if (entries == null) {
+                channel.close()
+                return null
+            }
+            return ZipProbe(file, channel, entries)
+        }
+
+        private fun readDirectory(channel: FileChannel, names: List<String>): Map<String, Entry>? {
+            val size = channel.size()
+            if (size < EOCD_SIZE) return null
+
+            val tailSize = minOf(size, (EOCD_SIZE + MAX_COMMENT).toLong()).toInt()
+            val tailStart = size - tailSize
+            val tail = channel.readAt(tailStart, tailSize) ?: return null
+
+            var eocd = tailSize - EOCD_SIZE
+            while (eocd >= 0 && tail.getInt(eocd) != EOCD_SIG) eocd--
+            if (eocd < 0) return null
+            // ZIP64 archives keep the real directory location in another record
+            if (eocd >= ZIP64_LOCATOR_SIZE && tail.getInt(eocd - ZIP64_LOCATOR_SIZE) == ZIP64_LOCATOR_SIG) return null
+
+            val count = tail.u16(eocd + 10)
+            val cdSize = tail.u32(eocd + 12)
+            val cdOffset = tail.u32(eocd + 16)
+            if (count == 0xFFFF || cdSize >= 0xFFFFFFFFL || cdOffset >= 0xFFFFFFFFL) return null
+
+            // Measured back from the EOCD, so data prepended to the archive is tolerated
+            val cdStart = tailStart + eocd - cdSize
+            if (cdStart < 0 || cdSize > Int.MAX_VALUE) return null
+            val shift = cdStart - cdOffset
+            val cd = channel.readAt(cdStart, cdSize.toInt()) ?: return null
+
+            val targets = Array(names.size) { names[it].toByteArray(Charsets.UTF_8) }
+            val found = HashMap<String, Entry>(names.size)
+            var pos = 0
+            while (pos + CEN_HEADER <= cdSize && found.size < targets.size) {
+                if (cd.getInt(pos) != CEN_SIG) return null
+                val nameLength = cd.u16(pos + 28)
+                val nameStart = pos + CEN_HEADER
+
+                for (i in targets.indices) {
+                    val target = targets[i]
+                    if (target.size == nameLength && cd.matches(nameStart, target) && names[i] !in found) {
+                        found[names[i]] = Entry(cd.u16(pos + 10), cd.u32(pos + 20), shift + cd.u32(pos + 42))
+                        break
+                    }
+                }
+                pos = nameStart + nameLength + cd.u16(pos + 30) + cd.u16(pos + 32)
+            }
+            return found
+        }
+
+        /**
+         * Reads [length] bytes at [position] into a little-endian buffer with [padding] spare
+         * bytes after them, or returns `null` if the file ends first.
+         */
+        private fun FileChannel.readAt(position: Long, length: Int, padding: Int = 0): ByteBuffer? {
+            val buffer = ByteBuffer.allocate(length + padding).order(ByteOrder.LITTLE_ENDIAN)
+            buffer.limit(length)
+            var offset = position
+            while (buffer.hasRemaining()) {
+                val n = read(buffer, offset)
+                if (n < 0) return null
+                offset += n
+            }
+            return buffer.clear()
+        }
+
+        private fun ByteBuffer.matches(start: Int, target: ByteArray): Boolean {
+            for (i in target.indices) if (get(start + i) != target[i]) return false
+            return true
+        }
+
+        private fun ByteBuffer.u16(index: Int): Int = getShort(index).toInt() and 0xFFFF
+
+        private fun ByteBuffer.u32(index: Int): Long = getInt(index).toLong() and 0xFFFFFFFFL
+    }
+}